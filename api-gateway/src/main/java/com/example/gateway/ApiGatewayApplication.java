@@ -1,10 +1,13 @@
 package com.example.gateway;
 
+import com.example.common.loadbalancer.LatencyAwareLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootApplication
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 @Slf4j
 public class ApiGatewayApplication {
 
@@ -16,27 +16,28 @@ public class FallbackController {
     @GetMapping(path = "/fallback/users", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<Map<String, Object>> usersFallback() {
         log.warn("Fallback triggered: /fallback/users");
-        return Mono.just(Map.of(
-                "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
-                "message", "user service is currently unavailable, please try again later"
-        ));
+        return Mono.just(unavailable("user"));
     }
 
     @GetMapping(path = "/fallback/inventory", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<Map<String, Object>> inventoryFallback() {
         log.warn("Fallback triggered: /fallback/inventory");
-        return Mono.just(Map.of(
-                "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
-                "message", "inventory service is currently unavailable, please try again later"
-        ));
+        return Mono.just(unavailable("inventory"));
     }
 
     @GetMapping(path = "/fallback/qr", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<Map<String, Object>> qrFallback() {
         log.warn("Fallback triggered: /fallback/qr");
-        return Mono.just(Map.of(
+        return Mono.just(unavailable("qr"));
+    }
+
+    /**
+     * Body shared by the circuit-breaker fallbacks and gateway-side rejections (e.g. concurrency limits).
+     */
+    public static Map<String, Object> unavailable(String service) {
+        return Map.of(
                 "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
-                "message", "qr service is currently unavailable, please try again later"
-        ));
+                "message", service + " service is currently unavailable, please try again later"
+        );
     }
 }
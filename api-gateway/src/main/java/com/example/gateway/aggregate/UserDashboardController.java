@@ -0,0 +1,138 @@
+package com.example.gateway.aggregate;
+
+import com.example.common.trace.TraceContext;
+import com.example.commonlib.security.autoconfigure.SecuritySharedProperties;
+import com.example.gateway.FallbackController;
+import com.example.gateway.config.AggregationProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.codec.CodecException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.UnsupportedMediaTypeException;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Composes a user's profile and their inventory into one response. Both legs are sent in parallel
+ * through the load balancer, so the client waits for the slower leg instead of the sum of both.
+ * <p>
+ * Each leg has its own timeout. A timed-out leg, or one answering 5xx, is reported under {@code errors}
+ * with the {@link FallbackController} message, and the other leg is still returned. A leg answering 4xx is
+ * reported as a client error with the downstream status instead, since retrying will not help. Client
+ * errors from the user leg (401, 403, 404) are passed through as-is, since inventory for an unknown user
+ * is meaningless.
+ */
+@Slf4j
+@RestController
+public class UserDashboardController {
+
+	private final WebClient webClient;
+	private final AggregationProperties properties;
+	// headers the downstream services need to authorize and correlate the call
+	private final List<String> forwardedHeaders;
+
+	public UserDashboardController(WebClient.Builder webClientBuilder,
+								   ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+								   AggregationProperties properties,
+								   SecuritySharedProperties securityProperties) {
+		this.webClient = webClientBuilder.clone().filter(loadBalancerFunction).build();
+		this.properties = properties;
+		this.forwardedHeaders = List.of(
+				HttpHeaders.AUTHORIZATION, TraceContext.TRACEPARENT, TraceContext.TRACE_ID_HEADER,
+				securityProperties.getInternalIdentity().getHeaderName());
+	}
+
+	@GetMapping(path = "/api/dashboard/users/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<Object>> dashboard(@PathVariable Long id, ServerHttpRequest request) {
+		Mono<Leg> user = leg("user", "lb://user-service/api/users/{id}", id, properties.getUserTimeout(), request);
+		Mono<Leg> inventory = leg("inventory", "lb://inventory-service/api/inventory/user/{id}", id, properties.getInventoryTimeout(), request);
+
+		return Mono.zip(user, inventory)
+				.map(legs -> merge(legs.getT1(), legs.getT2()));
+	}
+
+	private Mono<Leg> leg(String service, String uriTemplate, Long id, Duration timeout, ServerHttpRequest request) {
+		return webClient.get()
+				.uri(uriTemplate, id)
+				.headers(headers -> forwardedHeaders.forEach(name -> {
+					String value = request.getHeaders().getFirst(name);
+					if (value != null) {
+						headers.set(name, value);
+					}
+				}))
+				.exchangeToMono(response -> response.bodyToMono(JsonNode.class)
+						// an error page that is not JSON must not hide the status it came with
+						.onErrorResume(ex -> ex instanceof CodecException || ex instanceof UnsupportedMediaTypeException,
+								ex -> Mono.empty())
+						.map(body -> new Leg(service, response.statusCode(), body))
+						.defaultIfEmpty(new Leg(service, response.statusCode(), null)))
+				.timeout(timeout)
+				.onErrorResume(ex -> {
+					log.warn("Aggregation leg {} failed for user {}: {}", service, id, ex.toString());
+					return Mono.just(new Leg(service, null, null));
+				});
+	}
+
+	private static ResponseEntity<Object> merge(Leg user, Leg inventory) {
+		if (user.isClientError()) {
+			return ResponseEntity.status(user.status()).body(user.body());
+		}
+
+		Map<String, Object> errors = new LinkedHashMap<>();
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("user", user.valueOr(errors));
+		body.put("inventory", inventory.valueOr(errors));
+		if (!errors.isEmpty()) {
+			body.put("errors", errors);
+		}
+
+		HttpStatusCode status = HttpStatus.OK;
+		if (errors.size() == 2) {
+			// nothing to show: a client error explains that better than "unavailable"
+			status = inventory.isClientError() ? inventory.status() : HttpStatus.SERVICE_UNAVAILABLE;
+		}
+		return ResponseEntity.status(status).body(body);
+	}
+
+	/**
+	 * @param status null when the leg failed or timed out before a response arrived
+	 */
+	private record Leg(String service, HttpStatusCode status, JsonNode body) {
+
+		Object valueOr(Map<String, Object> errors) {
+			if (status != null && status.is2xxSuccessful()) {
+				return body;
+			}
+			errors.put(service, isClientError() ? clientError() : FallbackController.unavailable(service));
+			return null;
+		}
+
+		boolean isClientError() {
+			return status != null && status.is4xxClientError();
+		}
+
+		private Map<String, Object> clientError() {
+			Map<String, Object> error = new LinkedHashMap<>();
+			error.put("status", status.value());
+			error.put("message", service + " service rejected the request");
+			if (body != null) {
+				error.put("detail", body);
+			}
+			return error;
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package com.example.gateway.cache;
+
+/**
+ * Identity of a cacheable GET: the route, the external path and query, and the authenticated subject
+ * (so one user's response is never served to another).
+ */
+public record CacheKey(String routeId, String path, String query, String subject) {
+}
@@ -0,0 +1,15 @@
+package com.example.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Set;
+
+/**
+ * Immutable snapshot of an upstream response held by {@link ResponseCacheStore}.
+ */
+public record CachedResponse(int status,
+							 HttpHeaders headers,
+							 byte[] body,
+							 Set<String> tags,
+							 long ttlNanos) {
+}
@@ -0,0 +1,241 @@
+package com.example.gateway.cache;
+
+import com.example.gateway.config.StaleIfErrorProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Last successful response per {@link CacheKey}, served by {@code StaleIfErrorGatewayFilterFactory}
+ * while the upstream is failing. Unlike {@link ResponseCacheStore} nothing here is evicted by change
+ * events. Entries only age out after {@code max-stale}.
+ * <p>
+ * Memory is bounded by {@code max-entries}. With spill enabled, entries pushed out by size are written
+ * to one file each under the spill directory and read back (off the event loop) only when needed as a
+ * fallback. The spill tier is bounded by its own entry count and the directory is wiped on startup.
+ */
+@Slf4j
+@Component
+public class LastKnownGoodStore {
+
+	private static final String SPILL_SUFFIX = ".lkg";
+
+	private final Cache<CacheKey, StaleResponse> memory;
+	private final Cache<CacheKey, SpillFile> spilled;
+	private final Path spillDirectory;
+	private final AtomicLong spillSequence = new AtomicLong();
+	private final long maxStaleMillis;
+
+	private final MeterRegistry meterRegistry;
+	private final Counter spillWrites;
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	public LastKnownGoodStore(StaleIfErrorProperties properties, MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.maxStaleMillis = properties.getMaxStale().toMillis();
+
+		StaleIfErrorProperties.Spill spill = properties.getSpill();
+		this.spillDirectory = spill.isEnabled() ? prepareSpillDirectory(Paths.get(spill.getDirectory())) : null;
+		this.spilled = spillDirectory == null ? null : Caffeine.newBuilder()
+				.maximumSize(spill.getMaxEntries())
+				.expireAfter(remainingStaleness(SpillFile::storedAtMillis))
+				.removalListener((CacheKey key, SpillFile file, RemovalCause cause) -> {
+					if (file != null) {
+						deleteQuietly(file.path());
+					}
+				})
+				.build();
+
+		this.memory = Caffeine.newBuilder()
+				.maximumSize(properties.getMaxEntries())
+				.expireAfter(remainingStaleness(StaleResponse::storedAtMillis))
+				.removalListener(this::onMemoryRemoval)
+				.build();
+
+		Gauge.builder("gateway.stale.size", memory, Cache::estimatedSize)
+				.description("Last-known-good responses held in memory")
+				.register(meterRegistry);
+		if (spilled != null) {
+			Gauge.builder("gateway.stale.spill.size", spilled, Cache::estimatedSize)
+					.description("Last-known-good responses spilled to disk")
+					.register(meterRegistry);
+		}
+		this.spillWrites = Counter.builder("gateway.stale.spilled")
+				.description("Last-known-good responses written to the spill directory")
+				.register(meterRegistry);
+
+		log.info("Last-known-good store configured (maxEntries={}, maxStale={}, spill={})",
+				properties.getMaxEntries(), properties.getMaxStale(), spillDirectory != null ? spillDirectory : "off");
+	}
+
+	public void put(CacheKey key, StaleResponse response) {
+		memory.put(key, response);
+		if (spilled != null) {
+			// the spilled copy is now older than the one in memory
+			spilled.invalidate(key);
+		}
+	}
+
+	/**
+	 * Memory first, then the spill directory. Empty when nothing younger than {@code max-stale} is held.
+	 */
+	public Mono<StaleResponse> find(CacheKey key) {
+		StaleResponse inMemory = memory.getIfPresent(key);
+		if (inMemory != null) {
+			return result(key, Mono.just(inMemory), "memory");
+		}
+		SpillFile file = spilled != null ? spilled.getIfPresent(key) : null;
+		if (file == null) {
+			count(key.routeId(), "miss");
+			return Mono.empty();
+		}
+		Mono<StaleResponse> fromDisk = Mono.fromCallable(() -> read(file))
+				.subscribeOn(Schedulers.boundedElastic())
+				.onErrorResume(IOException.class, ex -> {
+					log.warn("Unreadable spilled response {}: {}", file.path(), ex.toString());
+					spilled.invalidate(key);
+					return Mono.empty();
+				});
+		return result(key, fromDisk, "disk");
+	}
+
+	private Mono<StaleResponse> result(CacheKey key, Mono<StaleResponse> lookup, String source) {
+		return lookup
+				.doOnNext(found -> count(key.routeId(), source))
+				.switchIfEmpty(Mono.fromRunnable(() -> count(key.routeId(), "miss")));
+	}
+
+	private void onMemoryRemoval(CacheKey key, StaleResponse value, RemovalCause cause) {
+		if (spilled == null || key == null || value == null || cause != RemovalCause.SIZE) {
+			return;
+		}
+		// Caffeine runs removal listeners on its executor, so the write stays off the event loop
+		Path path = spillDirectory.resolve(spillSequence.incrementAndGet() + SPILL_SUFFIX);
+		try {
+			write(path, value);
+			spilled.put(key, new SpillFile(path, value.storedAtMillis()));
+			spillWrites.increment();
+		} catch (IOException ex) {
+			log.warn("Failed to spill last-known-good response to {}: {}", path, ex.toString());
+			deleteQuietly(path);
+		}
+	}
+
+	private <V> Expiry<CacheKey, V> remainingStaleness(ToLongFunction<V> storedAtMillis) {
+		return new Expiry<>() {
+			@Override
+			public long expireAfterCreate(CacheKey key, V value, long currentTime) {
+				long remaining = maxStaleMillis - (System.currentTimeMillis() - storedAtMillis.applyAsLong(value));
+				return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+			}
+
+			@Override
+			public long expireAfterUpdate(CacheKey key, V value, long currentTime, long currentDuration) {
+				return expireAfterCreate(key, value, currentTime);
+			}
+
+			@Override
+			public long expireAfterRead(CacheKey key, V value, long currentTime, long currentDuration) {
+				return currentDuration;
+			}
+		};
+	}
+
+	private void count(String routeId, String result) {
+		counters.computeIfAbsent(routeId + '|' + result, k -> Counter.builder("gateway.stale.lookups")
+				.description("Last-known-good lookups made while an upstream was failing")
+				.tag("route", routeId)
+				.tag("result", result)
+				.register(meterRegistry)).increment();
+	}
+
+	private static void write(Path path, StaleResponse response) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+			out.writeInt(response.status());
+			out.writeLong(response.storedAtMillis());
+			out.writeInt(response.headers().size());
+			for (Map.Entry<String, List<String>> header : response.headers().entrySet()) {
+				out.writeUTF(header.getKey());
+				out.writeInt(header.getValue().size());
+				for (String value : header.getValue()) {
+					out.writeUTF(value);
+				}
+			}
+			out.writeInt(response.body().length);
+			out.write(response.body());
+		}
+	}
+
+	private static StaleResponse read(SpillFile file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.path())))) {
+			int status = in.readInt();
+			long storedAtMillis = in.readLong();
+			int headerCount = in.readInt();
+			HttpHeaders headers = new HttpHeaders();
+			for (int i = 0; i < headerCount; i++) {
+				String name = in.readUTF();
+				int valueCount = in.readInt();
+				List<String> values = new ArrayList<>(valueCount);
+				for (int v = 0; v < valueCount; v++) {
+					values.add(in.readUTF());
+				}
+				headers.put(name, values);
+			}
+			byte[] body = new byte[in.readInt()];
+			in.readFully(body);
+			return new StaleResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, storedAtMillis);
+		}
+	}
+
+	private static Path prepareSpillDirectory(Path directory) {
+		try {
+			Files.createDirectories(directory);
+			// the key index lives in memory only, so files from a previous run are unreachable
+			try (Stream<Path> leftovers = Files.list(directory)) {
+				leftovers.filter(path -> path.getFileName().toString().endsWith(SPILL_SUFFIX))
+						.forEach(LastKnownGoodStore::deleteQuietly);
+			}
+			return directory;
+		} catch (IOException ex) {
+			log.warn("Last-known-good spill disabled, cannot use {}: {}", directory, ex.toString());
+			return null;
+		}
+	}
+
+	private static void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException ex) {
+			log.debug("Could not delete {}: {}", path, ex.toString());
+		}
+	}
+
+	private record SpillFile(Path path, long storedAtMillis) {
+	}
+}
@@ -0,0 +1,206 @@
+package com.example.gateway.cache;
+
+import com.example.gateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Size- and TTL-bounded store behind {@code ResponseCacheGatewayFilterFactory}.
+ * <p>
+ * Every entry carries invalidation tags derived from its path (see {@code gateway.response-cache.tags});
+ * change events evict all entries for a tag through a tag -> keys index.
+ * To close the race between an in-flight upstream call and an invalidation, callers snapshot the
+ * tag versions before forwarding and {@link #put} refuses to store if any of them moved.
+ */
+@Slf4j
+@Component
+public class ResponseCacheStore {
+
+	// versions live in a fixed striped array so the tag space never grows memory; collisions only cost a skipped store
+	private static final int VERSION_STRIPES = 4096;
+
+	private final Cache<CacheKey, CachedResponse> cache;
+	private final Map<String, Set<CacheKey>> keysByTag = new ConcurrentHashMap<>();
+	private final AtomicLongArray tagVersions = new AtomicLongArray(VERSION_STRIPES);
+	private final List<TagRule> tagRules = new ArrayList<>();
+
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	public ResponseCacheStore(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(properties.getMaxEntries())
+				.expireAfter(new Expiry<CacheKey, CachedResponse>() {
+					@Override
+					public long expireAfterCreate(CacheKey key, CachedResponse value, long currentTime) {
+						return value.ttlNanos();
+					}
+
+					@Override
+					public long expireAfterUpdate(CacheKey key, CachedResponse value, long currentTime, long currentDuration) {
+						return value.ttlNanos();
+					}
+
+					@Override
+					public long expireAfterRead(CacheKey key, CachedResponse value, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.removalListener(this::onRemoval)
+				.build();
+
+		PathPatternParser parser = new PathPatternParser();
+		for (ResponseCacheProperties.TagMapping mapping : properties.getTags()) {
+			tagRules.add(new TagRule(parser.parse(mapping.getPattern()), mapping.getTag()));
+		}
+
+		Gauge.builder("gateway.cache.size", cache, Cache::estimatedSize)
+				.description("Responses currently held by the gateway response cache")
+				.register(meterRegistry);
+
+		log.info("Gateway response cache configured (maxEntries={}, defaultTtl={}, tagRules={})",
+				properties.getMaxEntries(), properties.getTtl(), tagRules.size());
+	}
+
+	public CachedResponse get(CacheKey key) {
+		CachedResponse cached = cache.getIfPresent(key);
+		count("gateway.cache.requests", key.routeId(), "result", cached != null ? "hit" : "miss");
+		return cached;
+	}
+
+	/**
+	 * Resolves the invalidation tags for a request path, e.g. {@code /api/inventory/7} -> {@code inventory:item:7}.
+	 */
+	public Set<String> tagsFor(String path) {
+		PathContainer container = PathContainer.parsePath(path);
+		Set<String> tags = new LinkedHashSet<>();
+		for (TagRule rule : tagRules) {
+			PathPattern.PathMatchInfo match = rule.pattern().matchAndExtract(container);
+			if (match != null) {
+				tags.add(expand(rule.template(), match.getUriVariables()));
+			}
+		}
+		return tags;
+	}
+
+	public long[] snapshotVersions(Set<String> tags) {
+		long[] versions = new long[tags.size()];
+		int i = 0;
+		for (String tag : tags) {
+			versions[i++] = tagVersions.get(stripe(tag));
+		}
+		return versions;
+	}
+
+	/**
+	 * Stores a response unless one of its tags was invalidated since {@code versionsAtStart} was taken.
+	 */
+	public boolean put(CacheKey key, CachedResponse response, long[] versionsAtStart) {
+		if (changedSince(response.tags(), versionsAtStart)) {
+			return false;
+		}
+		for (String tag : response.tags()) {
+			keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+		}
+		cache.put(key, response);
+
+		// an invalidation may have slipped in between the check and the index update
+		if (changedSince(response.tags(), versionsAtStart)) {
+			cache.invalidate(key);
+			return false;
+		}
+		return true;
+	}
+
+	public void invalidateTag(String tag) {
+		tagVersions.incrementAndGet(stripe(tag));
+
+		Set<CacheKey> keys = keysByTag.remove(tag);
+		if (keys == null || keys.isEmpty()) {
+			return;
+		}
+		for (CacheKey key : keys) {
+			count("gateway.cache.invalidations", key.routeId(), "tag", tagFamily(tag));
+		}
+		cache.invalidateAll(keys);
+		log.debug("Gateway response cache invalidated tag={} entries={}", tag, keys.size());
+	}
+
+	public void invalidateTags(Collection<String> tags) {
+		tags.forEach(this::invalidateTag);
+	}
+
+	private boolean changedSince(Set<String> tags, long[] versionsAtStart) {
+		int i = 0;
+		for (String tag : tags) {
+			if (tagVersions.get(stripe(tag)) != versionsAtStart[i++]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void onRemoval(CacheKey key, CachedResponse value, RemovalCause cause) {
+		if (key == null || value == null || cause == RemovalCause.REPLACED) {
+			return;
+		}
+		for (String tag : value.tags()) {
+			keysByTag.computeIfPresent(tag, (t, keys) -> {
+				keys.remove(key);
+				return keys.isEmpty() ? null : keys;
+			});
+		}
+		if (cause.wasEvicted()) {
+			count("gateway.cache.evictions", key.routeId(), "cause", cause.name().toLowerCase());
+		}
+	}
+
+	private void count(String name, String routeId, String tagKey, String tagValue) {
+		String id = name + '|' + routeId + '|' + tagValue;
+		counters.computeIfAbsent(id, k -> Counter.builder(name)
+				.tag("route", routeId)
+				.tag(tagKey, tagValue)
+				.register(meterRegistry)).increment();
+	}
+
+	private static int stripe(String tag) {
+		return (tag.hashCode() & 0x7fffffff) % VERSION_STRIPES;
+	}
+
+	private static String tagFamily(String tag) {
+		int idx = tag.lastIndexOf(':');
+		return idx > 0 ? tag.substring(0, idx) : tag;
+	}
+
+	private static String expand(String template, Map<String, String> variables) {
+		String result = template;
+		for (Map.Entry<String, String> var : variables.entrySet()) {
+			result = result.replace("{" + var.getKey() + "}", var.getValue());
+		}
+		return result;
+	}
+
+	private record TagRule(PathPattern pattern, String template) {
+	}
+}
@@ -0,0 +1,12 @@
+package com.example.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Last successful response for a {@link CacheKey}, kept by {@link LastKnownGoodStore}.
+ */
+public record StaleResponse(int status,
+							HttpHeaders headers,
+							byte[] body,
+							long storedAtMillis) {
+}
@@ -0,0 +1,21 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.aggregation")
+public class AggregationProperties {
+
+	/** Budget for the user-service leg of a composed response. */
+	private Duration userTimeout = Duration.ofSeconds(2);
+
+	/** Budget for the inventory-service leg of a composed response. */
+	private Duration inventoryTimeout = Duration.ofSeconds(2);
+
+	public Duration getUserTimeout() { return userTimeout; }
+	public void setUserTimeout(Duration userTimeout) { this.userTimeout = userTimeout; }
+
+	public Duration getInventoryTimeout() { return inventoryTimeout; }
+	public void setInventoryTimeout(Duration inventoryTimeout) { this.inventoryTimeout = inventoryTimeout; }
+}
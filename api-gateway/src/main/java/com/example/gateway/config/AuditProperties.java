@@ -0,0 +1,108 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.audit")
+public class AuditProperties {
+
+	/**
+	 * What to do when the hand-off queue is full.
+	 * DROP never touches the event loop; BLOCK parks the caller for at most {@code blockTimeout}.
+	 */
+	public enum OverflowPolicy {
+		DROP,
+		BLOCK
+	}
+
+	private int queueCapacity = 8192;
+	private int batchSize = 256;
+	private Duration linger = Duration.ofMillis(20);
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+	private Duration blockTimeout = Duration.ofMillis(5);
+	private Duration shutdownTimeout = Duration.ofSeconds(5);
+	private Rollup rollup = new Rollup();
+	private Spool spool = new Spool();
+
+	public int getQueueCapacity() { return queueCapacity; }
+	public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+	public int getBatchSize() { return batchSize; }
+	public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+	public Duration getLinger() { return linger; }
+	public void setLinger(Duration linger) { this.linger = linger; }
+
+	public OverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+
+	public Duration getBlockTimeout() { return blockTimeout; }
+	public void setBlockTimeout(Duration blockTimeout) { this.blockTimeout = blockTimeout; }
+
+	public Duration getShutdownTimeout() { return shutdownTimeout; }
+	public void setShutdownTimeout(Duration shutdownTimeout) { this.shutdownTimeout = shutdownTimeout; }
+
+	public Rollup getRollup() { return rollup; }
+	public void setRollup(Rollup rollup) { this.rollup = rollup; }
+
+	public Spool getSpool() { return spool; }
+	public void setSpool(Spool spool) { this.spool = spool; }
+
+	/**
+	 * Roll-up mode: successes are counted per (route, method, status class, bucket) and
+	 * emitted as one summary per bucket; responses at or above {@code individualMinStatus}
+	 * plus a {@code successSampleRate} fraction of the rest still go out individually.
+	 */
+	public static class Rollup {
+
+		private boolean enabled = false;
+		private Duration bucket = Duration.ofSeconds(10);
+		private double successSampleRate = 0.01;
+		private int individualMinStatus = 400;
+
+		public boolean isEnabled() { return enabled; }
+		public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+		public Duration getBucket() { return bucket; }
+		public void setBucket(Duration bucket) { this.bucket = bucket; }
+
+		public double getSuccessSampleRate() { return successSampleRate; }
+		public void setSuccessSampleRate(double successSampleRate) { this.successSampleRate = successSampleRate; }
+
+		public int getIndividualMinStatus() { return individualMinStatus; }
+		public void setIndividualMinStatus(int individualMinStatus) { this.individualMinStatus = individualMinStatus; }
+	}
+
+	/**
+	 * Local fallback for envelopes the binder refuses; replayed in order once sends succeed again.
+	 */
+	public static class Spool {
+
+		private boolean enabled = true;
+		private String directory = System.getProperty("java.io.tmpdir") + "/api-gateway/audit-spool";
+		private DataSize segmentSize = DataSize.ofMegabytes(16);
+		private DataSize maxSize = DataSize.ofMegabytes(512);
+		private Duration replayBackoff = Duration.ofMillis(500);
+		private Duration maxReplayBackoff = Duration.ofSeconds(30);
+
+		public boolean isEnabled() { return enabled; }
+		public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+		public String getDirectory() { return directory; }
+		public void setDirectory(String directory) { this.directory = directory; }
+
+		public DataSize getSegmentSize() { return segmentSize; }
+		public void setSegmentSize(DataSize segmentSize) { this.segmentSize = segmentSize; }
+
+		public DataSize getMaxSize() { return maxSize; }
+		public void setMaxSize(DataSize maxSize) { this.maxSize = maxSize; }
+
+		public Duration getReplayBackoff() { return replayBackoff; }
+		public void setReplayBackoff(Duration replayBackoff) { this.replayBackoff = replayBackoff; }
+
+		public Duration getMaxReplayBackoff() { return maxReplayBackoff; }
+		public void setMaxReplayBackoff(Duration maxReplayBackoff) { this.maxReplayBackoff = maxReplayBackoff; }
+	}
+}
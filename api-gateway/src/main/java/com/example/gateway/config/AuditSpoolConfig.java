@@ -0,0 +1,47 @@
+package com.example.gateway.config;
+
+import com.example.gateway.publisher.AuditBatchDispatcher;
+import com.example.gateway.spool.AuditSpool;
+import com.example.gateway.spool.AuditSpoolReplayer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.file.Path;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.audit.spool", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuditSpoolConfig {
+
+	@Bean
+	public AuditSpool auditSpool(AuditProperties properties) {
+		AuditProperties.Spool spool = properties.getSpool();
+		log.info("Audit spool enabled dir={} segmentSize={} maxSize={}",
+				spool.getDirectory(), spool.getSegmentSize(), spool.getMaxSize());
+
+		return new AuditSpool(
+				Path.of(spool.getDirectory()),
+				(int) spool.getSegmentSize().toBytes(),
+				spool.getMaxSize().toBytes());
+	}
+
+	@Bean
+	public AuditSpoolReplayer auditSpoolReplayer(AuditSpool auditSpool,
+												 StreamBridge streamBridge,
+												 AuditProperties properties) {
+		// spooled records are already-serialized envelopes, so they go out as raw JSON bytes
+		return new AuditSpoolReplayer(
+				auditSpool,
+				record -> streamBridge.send(AuditBatchDispatcher.BINDING, MessageBuilder.withPayload(record)
+						.setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+						.build()),
+				properties.getSpool().getReplayBackoff(),
+				properties.getSpool().getMaxReplayBackoff());
+	}
+}
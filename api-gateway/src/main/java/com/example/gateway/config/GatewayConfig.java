@@ -1,31 +1,46 @@
 package com.example.gateway.config;
 
+import com.example.common.trace.TraceContext;
+import com.example.gateway.metrics.ExchangeMetering;
+import com.example.gateway.metrics.ExchangeTimings;
+import com.example.gateway.metrics.RouteLatencyMetrics;
 import com.example.gateway.publisher.AuditPublisher;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 
-import java.util.List;
-import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Configuration
+@EnableConfigurationProperties({
+		AuditProperties.class, ResponseCacheProperties.class, HedgeProperties.class,
+		AggregationProperties.class, PushProperties.class, LoadSheddingProperties.class,
+		UpstreamPoolProperties.class, StaleIfErrorProperties.class})
 public class GatewayConfig {
 
 	@Bean
-	public WebFilter auditWebFilter(AuditPublisher publisher) {
+	public WebFilter auditWebFilter(AuditPublisher publisher, RouteLatencyMetrics routeLatencyMetrics) {
 
 		return (exchange, chain) -> {
-			String existingTraceId = getExistingTraceId(exchange);
-			String traceId = existingTraceId != null ? existingTraceId : UUID.randomUUID().toString();
+			ExchangeTimings timings = new ExchangeTimings();
+			TraceContext incoming = getIncomingTraceContext(exchange);
+			String traceId = incoming.traceId();
+			// the gateway is a hop of its own: downstream sees the gateway's span as its parent
+			TraceContext downstream = incoming.child();
 
-			// propagate trace id to downstream services
-			ServerWebExchange mutatedExchange = exchange.mutate()
-					.request(builder -> builder.header("X-Trace-Id", traceId))
-					.build();
+			// propagate trace context to downstream services
+			ServerWebExchange mutatedExchange = ExchangeMetering.meter(exchange.mutate()
+					.request(builder -> builder
+							.header(TraceContext.TRACEPARENT, downstream.toTraceparent())
+							.header(TraceContext.TRACE_ID_HEADER, traceId))
+					.build(), timings);
 
 			return chain.filter(mutatedExchange)
 					.doOnSuccess(done -> {
@@ -34,20 +49,27 @@ public class GatewayConfig {
 								? response.getStatusCode().value()
 								: 200;
 
+						Route route = mutatedExchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+						routeLatencyMetrics.record(route != null ? route.getId() : null,
+								ExchangeTimings.resolvedInstance(mutatedExchange), statusCode, timings, timings.elapsedNanos());
+
                         log.debug("Publishing audit event traceId={}, method={}, path={}, status={}", traceId, mutatedExchange.getRequest().getMethod(), mutatedExchange.getRequest().getURI().getPath(), statusCode);
-						publisher.publish(mutatedExchange.getRequest(), statusCode, traceId);
+						publisher.publish(mutatedExchange, statusCode, traceId);
 					});
 		};
 	}
 
-	private String getExistingTraceId(ServerWebExchange exchange) {
-		List<String> headerValues = exchange.getRequest().getHeaders().get("X-Trace-Id");
-        // Trace id will be used for correlating gateway logs + audit events
-		if (headerValues != null && !headerValues.isEmpty()) {
-            log.debug("Using existing X-Trace-Id header: {}", headerValues.getFirst());
-			return headerValues.getFirst();
+	private TraceContext getIncomingTraceContext(ServerWebExchange exchange) {
+		HttpHeaders headers = exchange.getRequest().getHeaders();
+		String traceparent = headers.getFirst(TraceContext.TRACEPARENT);
+		String legacyTraceId = headers.getFirst(TraceContext.TRACE_ID_HEADER);
+		// Trace id will be used for correlating gateway logs + audit events
+		if (traceparent != null || legacyTraceId != null) {
+			log.debug("Continuing trace traceparent={} X-Trace-Id={}", traceparent, legacyTraceId);
+		} else {
+			log.debug("No trace context on request {} {}", exchange.getRequest().getMethod(), exchange.getRequest().getURI());
 		}
-        log.debug("No X-Trace-Id header present on request {} {}", exchange.getRequest().getMethod(), exchange.getRequest().getURI());
-		return null;
+		// ids are drawn from ThreadLocalRandom; no SecureRandom on the event loop
+		return TraceContext.fromHeaders(traceparent, legacyTraceId);
 	}
 }
@@ -0,0 +1,19 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "gateway.hedge")
+public class HedgeProperties {
+
+	/** Hedges allowed as a percentage of primary requests across all hedged routes. */
+	private double budgetPercent = 10;
+
+	/** Hedge tokens that may accumulate while traffic is healthy. */
+	private long maxBurst = 50;
+
+	public double getBudgetPercent() { return budgetPercent; }
+	public void setBudgetPercent(double budgetPercent) { this.budgetPercent = budgetPercent; }
+
+	public long getMaxBurst() { return maxBurst; }
+	public void setMaxBurst(long maxBurst) { this.maxBurst = maxBurst; }
+}
@@ -0,0 +1,20 @@
+package com.example.gateway.config;
+
+import com.example.gateway.event.InventoryEvent;
+import com.example.gateway.push.InventoryEventHub;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Consumer;
+
+/**
+ * Feeds {@link InventoryEventHub} from inventory-service's change stream.
+ */
+@Configuration
+public class InventoryPushConfig {
+
+	@Bean
+	public Consumer<InventoryEvent> inventoryPush(InventoryEventHub hub) {
+		return hub::publish;
+	}
+}
@@ -0,0 +1,41 @@
+package com.example.gateway.config;
+
+import com.example.gateway.limit.AdmissionController;
+import com.example.gateway.limit.EventLoopLagProbe;
+import com.example.gateway.limit.LoadSheddingWebFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.load-shedding", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+	@Bean
+	public EventLoopLagProbe eventLoopLagProbe(ReactorResourceFactory resourceFactory,
+											   LoadSheddingProperties properties,
+											   MeterRegistry meterRegistry) {
+		// the embedded Netty server runs on these loops
+		return new EventLoopLagProbe(resourceFactory.getLoopResources().onServer(true), properties.getProbeInterval(), meterRegistry);
+	}
+
+	@Bean
+	public AdmissionController admissionController(LoadSheddingProperties properties,
+												   EventLoopLagProbe eventLoopLagProbe,
+												   MeterRegistry meterRegistry) {
+		return new AdmissionController(properties, eventLoopLagProbe, meterRegistry);
+	}
+
+	@Bean
+	public LoadSheddingWebFilter loadSheddingWebFilter(AdmissionController admissionController,
+													   LoadSheddingProperties properties,
+													   ObjectMapper objectMapper) {
+		log.info("Load shedding enabled ({} rules, default priority {})", properties.getRules().size(), properties.getDefaultPriority());
+		return new LoadSheddingWebFilter(admissionController, properties, objectMapper);
+	}
+}
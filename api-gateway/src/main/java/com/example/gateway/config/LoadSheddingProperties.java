@@ -0,0 +1,94 @@
+package com.example.gateway.config;
+
+import com.example.gateway.limit.Priority;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.load-shedding")
+public class LoadSheddingProperties {
+
+	private boolean enabled = true;
+
+	/** How often the event-loop lag probe runs. */
+	private Duration probeInterval = Duration.ofMillis(100);
+
+	/** Class for requests that match no rule. */
+	private Priority defaultPriority = Priority.NORMAL;
+
+	/** Per-class admission thresholds; lower classes should have lower thresholds so they shed first. */
+	private Map<Priority, Threshold> thresholds = defaultThresholds();
+
+	/** Evaluated in order; first match wins. */
+	private List<Rule> rules = new ArrayList<>();
+
+	public boolean isEnabled() { return enabled; }
+	public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+	public Duration getProbeInterval() { return probeInterval; }
+	public void setProbeInterval(Duration probeInterval) { this.probeInterval = probeInterval; }
+
+	public Priority getDefaultPriority() { return defaultPriority; }
+	public void setDefaultPriority(Priority defaultPriority) { this.defaultPriority = defaultPriority; }
+
+	public Map<Priority, Threshold> getThresholds() { return thresholds; }
+	public void setThresholds(Map<Priority, Threshold> thresholds) { this.thresholds = thresholds; }
+
+	public List<Rule> getRules() { return rules; }
+	public void setRules(List<Rule> rules) { this.rules = rules; }
+
+	private static Map<Priority, Threshold> defaultThresholds() {
+		Map<Priority, Threshold> defaults = new EnumMap<>(Priority.class);
+		defaults.put(Priority.CRITICAL, new Threshold(2000, Duration.ofSeconds(1)));
+		defaults.put(Priority.NORMAL, new Threshold(1200, Duration.ofMillis(200)));
+		defaults.put(Priority.SHEDDABLE, new Threshold(600, Duration.ofMillis(50)));
+		return defaults;
+	}
+
+	/**
+	 * A class is shed once gateway-wide in-flight requests reach {@code maxInFlight}
+	 * or the event loops lag by more than {@code maxLoopLag}.
+	 */
+	public static class Threshold {
+
+		private int maxInFlight;
+		private Duration maxLoopLag;
+
+		public Threshold() {
+		}
+
+		public Threshold(int maxInFlight, Duration maxLoopLag) {
+			this.maxInFlight = maxInFlight;
+			this.maxLoopLag = maxLoopLag;
+		}
+
+		public int getMaxInFlight() { return maxInFlight; }
+		public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+
+		public Duration getMaxLoopLag() { return maxLoopLag; }
+		public void setMaxLoopLag(Duration maxLoopLag) { this.maxLoopLag = maxLoopLag; }
+	}
+
+	/**
+	 * Matches on path pattern (Spring {@code PathPattern} syntax) and, if set, HTTP method.
+	 */
+	public static class Rule {
+
+		private String path;
+		private String method;
+		private Priority priority = Priority.NORMAL;
+
+		public String getPath() { return path; }
+		public void setPath(String path) { this.path = path; }
+
+		public String getMethod() { return method; }
+		public void setMethod(String method) { this.method = method; }
+
+		public Priority getPriority() { return priority; }
+		public void setPriority(Priority priority) { this.priority = priority; }
+	}
+}
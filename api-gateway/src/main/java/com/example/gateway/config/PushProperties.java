@@ -0,0 +1,27 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.push")
+public class PushProperties {
+
+	/** Events queued per subscriber before it is treated as a slow consumer and disconnected. */
+	private int bufferSize = 256;
+
+	/** SSE comment sent on idle streams so proxies and load balancers keep them open. */
+	private Duration heartbeat = Duration.ofSeconds(15);
+
+	/** Budget for looking up the stream's owner in user-service before a subscription is allowed. */
+	private Duration ownerLookupTimeout = Duration.ofSeconds(2);
+
+	public int getBufferSize() { return bufferSize; }
+	public void setBufferSize(int bufferSize) { this.bufferSize = bufferSize; }
+
+	public Duration getHeartbeat() { return heartbeat; }
+	public void setHeartbeat(Duration heartbeat) { this.heartbeat = heartbeat; }
+
+	public Duration getOwnerLookupTimeout() { return ownerLookupTimeout; }
+	public void setOwnerLookupTimeout(Duration ownerLookupTimeout) { this.ownerLookupTimeout = ownerLookupTimeout; }
+}
@@ -0,0 +1,49 @@
+package com.example.gateway.config;
+
+import com.example.gateway.cache.ResponseCacheStore;
+import com.example.gateway.event.InventoryEvent;
+import com.example.gateway.event.UserEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Evicts cached gateway responses from the services' own change streams.
+ * Tags emitted here must line up with {@code gateway.response-cache.tags}.
+ */
+@Slf4j
+@Configuration
+public class ResponseCacheInvalidationConfig {
+
+	@Bean
+	public Consumer<InventoryEvent> inventoryCacheInvalidation(ResponseCacheStore store) {
+		return event -> {
+			List<String> tags = new ArrayList<>(2);
+			if (event.getItemId() != null) {
+				tags.add("inventory:item:" + event.getItemId());
+			}
+			if (event.getOwnerUserId() != null) {
+				tags.add("inventory:owner:" + event.getOwnerUserId());
+			}
+			log.debug("Invalidating cached inventory responses type={} tags={}", event.getEventType(), tags);
+			store.invalidateTags(tags);
+		};
+	}
+
+	@Bean
+	public Consumer<UserEvent> userCacheInvalidation(ResponseCacheStore store) {
+		return event -> {
+			List<String> tags = new ArrayList<>(2);
+			tags.add("user:list");
+			if (event.getId() != null) {
+				tags.add("user:" + event.getId());
+			}
+			log.debug("Invalidating cached user responses id={} tags={}", event.getId(), tags);
+			store.invalidateTags(tags);
+		};
+	}
+}
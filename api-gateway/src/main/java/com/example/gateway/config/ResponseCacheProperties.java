@@ -0,0 +1,46 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+	private long maxEntries = 10_000;
+	private Duration ttl = Duration.ofSeconds(60);
+	private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+	/**
+	 * Maps request paths to invalidation tags, e.g. {@code /api/inventory/{id}} -> {@code inventory:item:{id}}.
+	 * Change events evict every cached response carrying the matching tag.
+	 */
+	private List<TagMapping> tags = new ArrayList<>();
+
+	public long getMaxEntries() { return maxEntries; }
+	public void setMaxEntries(long maxEntries) { this.maxEntries = maxEntries; }
+
+	public Duration getTtl() { return ttl; }
+	public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+	public DataSize getMaxEntrySize() { return maxEntrySize; }
+	public void setMaxEntrySize(DataSize maxEntrySize) { this.maxEntrySize = maxEntrySize; }
+
+	public List<TagMapping> getTags() { return tags; }
+	public void setTags(List<TagMapping> tags) { this.tags = tags; }
+
+	public static class TagMapping {
+
+		private String pattern;
+		private String tag;
+
+		public String getPattern() { return pattern; }
+		public void setPattern(String pattern) { this.pattern = pattern; }
+
+		public String getTag() { return tag; }
+		public void setTag(String tag) { this.tag = tag; }
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.stale-if-error")
+public class StaleIfErrorProperties {
+
+	/** Last-known-good responses kept in memory. */
+	private long maxEntries = 10_000;
+
+	/** Oldest response that may still be served while the upstream is failing. */
+	private Duration maxStale = Duration.ofHours(1);
+
+	private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+	private Spill spill = new Spill();
+
+	public long getMaxEntries() { return maxEntries; }
+	public void setMaxEntries(long maxEntries) { this.maxEntries = maxEntries; }
+
+	public Duration getMaxStale() { return maxStale; }
+	public void setMaxStale(Duration maxStale) { this.maxStale = maxStale; }
+
+	public DataSize getMaxEntrySize() { return maxEntrySize; }
+	public void setMaxEntrySize(DataSize maxEntrySize) { this.maxEntrySize = maxEntrySize; }
+
+	public Spill getSpill() { return spill; }
+	public void setSpill(Spill spill) { this.spill = spill; }
+
+	/**
+	 * Entries pushed out of memory by size are written here instead of being dropped.
+	 * The directory is wiped on startup; it is an overflow tier, not a persistent cache.
+	 */
+	public static class Spill {
+
+		private boolean enabled = false;
+		private String directory = System.getProperty("java.io.tmpdir") + "/api-gateway/stale-spill";
+		private long maxEntries = 100_000;
+
+		public boolean isEnabled() { return enabled; }
+		public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+		public String getDirectory() { return directory; }
+		public void setDirectory(String directory) { this.directory = directory; }
+
+		public long getMaxEntries() { return maxEntries; }
+		public void setMaxEntries(long maxEntries) { this.maxEntries = maxEntries; }
+	}
+}
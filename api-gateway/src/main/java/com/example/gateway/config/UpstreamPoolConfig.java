@@ -0,0 +1,56 @@
+package com.example.gateway.config;
+
+import com.example.gateway.upstream.PooledNettyRoutingFilter;
+import com.example.gateway.upstream.UpstreamConnectionPools;
+import com.example.gateway.upstream.UpstreamPoolWarmer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+@Configuration
+public class UpstreamPoolConfig {
+
+	@Bean
+	public UpstreamConnectionPools upstreamConnectionPools(UpstreamPoolProperties properties,
+														   HttpClientProperties httpClientProperties,
+														   HttpClient httpClient) {
+		return new UpstreamConnectionPools(properties, httpClientProperties, httpClient);
+	}
+
+	// stands in for the default routingFilter, which is disabled in api-gateway.yml
+	@Bean
+	public PooledNettyRoutingFilter pooledRoutingFilter(HttpClient httpClient,
+														ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+														HttpClientProperties httpClientProperties,
+														UpstreamConnectionPools pools) {
+		return new PooledNettyRoutingFilter(httpClient, headersFilters, httpClientProperties, pools);
+	}
+
+	// the default nettyWriteResponseFilter is switched off together with routingFilter; without it the
+	// upstream body is never written back
+	@Bean
+	public NettyWriteResponseFilter nettyWriteResponseFilter(GatewayProperties gatewayProperties) {
+		return new NettyWriteResponseFilter(gatewayProperties.getStreamingMediaTypes());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "gateway.upstream-pool", name = "enabled", havingValue = "true", matchIfMissing = true)
+	public UpstreamPoolWarmer upstreamPoolWarmer(UpstreamConnectionPools pools,
+												 DiscoveryClient discoveryClient,
+												 RouteLocator routeLocator,
+												 UpstreamPoolProperties properties,
+												 MeterRegistry meterRegistry) {
+		return new UpstreamPoolWarmer(pools, discoveryClient, routeLocator, properties, meterRegistry);
+	}
+}
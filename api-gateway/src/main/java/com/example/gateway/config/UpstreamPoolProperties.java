@@ -0,0 +1,92 @@
+package com.example.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.upstream-pool")
+public class UpstreamPoolProperties {
+
+	/** When false, every route uses the gateway's shared HttpClient and nothing is pre-warmed. */
+	private boolean enabled = true;
+
+	private Pool defaults = new Pool();
+
+	/** Per-service pools keyed by service id; an entry replaces {@link #defaults} for that service. */
+	private Map<String, Pool> services = new LinkedHashMap<>();
+
+	private Warmup warmup = new Warmup();
+
+	public boolean isEnabled() { return enabled; }
+	public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+	public Pool getDefaults() { return defaults; }
+	public void setDefaults(Pool defaults) { this.defaults = defaults; }
+
+	public Map<String, Pool> getServices() { return services; }
+	public void setServices(Map<String, Pool> services) { this.services = services; }
+
+	public Warmup getWarmup() { return warmup; }
+	public void setWarmup(Warmup warmup) { this.warmup = warmup; }
+
+	public Pool poolFor(String serviceId) {
+		return services.getOrDefault(serviceId, defaults);
+	}
+
+	public static class Pool {
+
+		private int maxConnections = 100;
+		/** Requests allowed to wait for a connection before failing fast. */
+		private int pendingAcquireMaxCount = 200;
+		private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+		private Duration maxIdleTime = Duration.ofSeconds(30);
+		private Duration maxLifeTime = Duration.ofMinutes(10);
+		private Duration evictInterval = Duration.ofSeconds(30);
+		/** Speak cleartext HTTP/2 (with HTTP/1.1 fallback) to this service. */
+		private boolean h2c = false;
+
+		public int getMaxConnections() { return maxConnections; }
+		public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+		public int getPendingAcquireMaxCount() { return pendingAcquireMaxCount; }
+		public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) { this.pendingAcquireMaxCount = pendingAcquireMaxCount; }
+
+		public Duration getPendingAcquireTimeout() { return pendingAcquireTimeout; }
+		public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) { this.pendingAcquireTimeout = pendingAcquireTimeout; }
+
+		public Duration getMaxIdleTime() { return maxIdleTime; }
+		public void setMaxIdleTime(Duration maxIdleTime) { this.maxIdleTime = maxIdleTime; }
+
+		public Duration getMaxLifeTime() { return maxLifeTime; }
+		public void setMaxLifeTime(Duration maxLifeTime) { this.maxLifeTime = maxLifeTime; }
+
+		public Duration getEvictInterval() { return evictInterval; }
+		public void setEvictInterval(Duration evictInterval) { this.evictInterval = evictInterval; }
+
+		public boolean isH2c() { return h2c; }
+		public void setH2c(boolean h2c) { this.h2c = h2c; }
+	}
+
+	public static class Warmup {
+
+		private boolean enabled = true;
+		/** Connections opened to each newly seen instance. */
+		private int connections = 4;
+		private String path = "/actuator/health";
+		private Duration timeout = Duration.ofSeconds(2);
+
+		public boolean isEnabled() { return enabled; }
+		public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+		public int getConnections() { return connections; }
+		public void setConnections(int connections) { this.connections = connections; }
+
+		public String getPath() { return path; }
+		public void setPath(String path) { this.path = path; }
+
+		public Duration getTimeout() { return timeout; }
+		public void setTimeout(Duration timeout) { this.timeout = timeout; }
+	}
+}
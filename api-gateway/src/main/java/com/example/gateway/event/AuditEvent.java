@@ -19,4 +19,13 @@ public class AuditEvent {
 	private String method;
 	private int statusCode;
 	private Instant timestamp;
+
+	private String routeId;
+	// host:port of the upstream that answered; null when served by the gateway itself (cache, rejection)
+	private String instance;
+	private long totalLatencyMicros;
+	// null when no upstream call was made
+	private Long upstreamLatencyMicros;
+	private long requestBytes;
+	private long responseBytes;
 }
@@ -0,0 +1,36 @@
+package com.example.gateway.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class AuditRollupEvent {
+
+	private Instant bucketStart;
+	private Instant bucketEnd;
+	private long total;
+	private List<Entry> entries;
+
+	@Getter
+	@Builder
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@ToString
+	public static class Entry {
+
+		private String routeId;
+		private String method;
+		private String statusClass;   // e.g. 2xx, 3xx
+		private long count;
+	}
+}
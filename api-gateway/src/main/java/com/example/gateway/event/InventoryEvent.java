@@ -0,0 +1,30 @@
+package com.example.gateway.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Gateway-side view of inventory-service's {@code InventoryEvent} (binding {@code inventory-events-out-0}).
+ * Only the fields the gateway reacts to are mapped.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class InventoryEvent {
+
+	private String eventId;
+	private String eventType;     // ITEM_CREATED, ITEM_UPDATED, STOCK_INCREASED, STOCK_DECREASED, ITEM_DELETED
+	private Long itemId;
+	private String itemName;
+	private Integer quantityChange;
+	private Long ownerUserId;
+	private String reason;
+	private Instant createdAt;
+}
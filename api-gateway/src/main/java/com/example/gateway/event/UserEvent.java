@@ -0,0 +1,22 @@
+package com.example.gateway.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Gateway-side view of user-service's {@code UserCreatedEvent} / {@code UserUpdatedEvent}.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserEvent {
+
+	private Long id;
+	private String username;
+	private boolean active;
+}
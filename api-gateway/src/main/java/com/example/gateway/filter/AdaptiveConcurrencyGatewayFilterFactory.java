@@ -0,0 +1,143 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.FallbackController;
+import com.example.gateway.limit.GradientConcurrencyLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounds in-flight requests per route with a {@link GradientConcurrencyLimiter}. Requests over the limit are
+ * rejected immediately with 503 and the same body as {@link FallbackController}, instead of queueing behind
+ * a slow upstream until the circuit breaker trips.
+ *
+ * <pre>
+ * filters:
+ *   - AdaptiveConcurrency=inventory
+ * </pre>
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+	// survives route refreshes so the learned limit and registered gauges are kept
+	private final Map<String, GradientConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+	private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+	private final MeterRegistry meterRegistry;
+	private final ObjectMapper objectMapper;
+
+	public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+		super(Config.class);
+		this.meterRegistry = meterRegistry;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("fallback");
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+		GradientConcurrencyLimiter limiter = limiters.computeIfAbsent(routeId, id -> newLimiter(id, config));
+		Counter rejected = rejectedCounters.computeIfAbsent(routeId, id -> Counter.builder("gateway.concurrency.rejected")
+				.description("Requests rejected by the adaptive concurrency limit")
+				.tag("route", id)
+				.register(meterRegistry));
+		Map<String, Object> rejectionBody = FallbackController.unavailable(config.getFallback());
+
+		return (exchange, chain) -> {
+			if (!limiter.tryAcquire()) {
+				rejected.increment();
+				log.debug("Concurrency limit reached route={} limit={} inFlight={}", routeId, limiter.getLimit(), limiter.getInFlight());
+				return GatewayResponses.writeJson(exchange.getResponse(), HttpStatus.SERVICE_UNAVAILABLE, rejectionBody, objectMapper);
+			}
+
+			long start = System.nanoTime();
+			return chain.filter(exchange)
+					.doFinally(signal -> limiter.release(System.nanoTime() - start, outcome(signal, exchange.getResponse().getStatusCode())));
+		};
+	}
+
+	private GradientConcurrencyLimiter newLimiter(String routeId, Config config) {
+		GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(
+				config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+				config.getSmoothing(), config.getRttTolerance());
+
+		Gauge.builder("gateway.concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+				.description("Current adaptive concurrency limit")
+				.tag("route", routeId)
+				.register(meterRegistry);
+		Gauge.builder("gateway.concurrency.inflight", limiter, GradientConcurrencyLimiter::getInFlight)
+				.description("Requests currently holding a concurrency slot")
+				.tag("route", routeId)
+				.register(meterRegistry);
+
+		log.info("Adaptive concurrency limit for route={} (initial={}, min={}, max={})",
+				routeId, config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+		return limiter;
+	}
+
+	private static GradientConcurrencyLimiter.Outcome outcome(SignalType signal, HttpStatusCode status) {
+		if (signal == SignalType.ON_ERROR) {
+			return GradientConcurrencyLimiter.Outcome.DROPPED;
+		}
+		if (signal == SignalType.CANCEL) {
+			return GradientConcurrencyLimiter.Outcome.IGNORED;
+		}
+		if (status != null && status.is5xxServerError()) {
+			return GradientConcurrencyLimiter.Outcome.DROPPED;
+		}
+		return GradientConcurrencyLimiter.Outcome.SUCCESS;
+	}
+
+	public static class Config implements HasRouteId {
+
+		private String routeId;
+		private String fallback = "requested";
+		private int initialLimit = 20;
+		private int minLimit = 4;
+		private int maxLimit = 500;
+		private double smoothing = 0.2;
+		private double rttTolerance = 1.5;
+
+		@Override
+		public String getRouteId() { return routeId; }
+		@Override
+		public void setRouteId(String routeId) { this.routeId = routeId; }
+
+		public String getFallback() { return fallback; }
+		public void setFallback(String fallback) { this.fallback = fallback; }
+
+		public int getInitialLimit() { return initialLimit; }
+		public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+		public int getMinLimit() { return minLimit; }
+		public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+		public int getMaxLimit() { return maxLimit; }
+		public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+		public double getSmoothing() { return smoothing; }
+		public void setSmoothing(double smoothing) { this.smoothing = smoothing; }
+
+		public double getRttTolerance() { return rttTolerance; }
+		public void setRttTolerance(double rttTolerance) { this.rttTolerance = rttTolerance; }
+	}
+}
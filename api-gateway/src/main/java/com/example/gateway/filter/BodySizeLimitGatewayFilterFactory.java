@@ -0,0 +1,152 @@
+package com.example.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps request body size on streaming routes without buffering the body. A declared
+ * {@code Content-Length} over the limit is rejected with 413 before any byte is read; otherwise the
+ * body is forwarded buffer by buffer as it arrives, and the upstream call is aborted with 413 as soon as
+ * the running count crosses the limit (chunked uploads). Memory per upload is bounded by the in-flight
+ * buffers, not by the body size.
+ *
+ * <pre>
+ * filters:
+ *   - BodySizeLimit=8MB
+ * </pre>
+ */
+@Slf4j
+@Component
+public class BodySizeLimitGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<BodySizeLimitGatewayFilterFactory.Config> {
+
+	private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+	private final ObjectMapper objectMapper;
+
+	public BodySizeLimitGatewayFilterFactory(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+		super(Config.class);
+		this.meterRegistry = meterRegistry;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("maxSize");
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+		long maxBytes = config.getMaxSize().toBytes();
+		Map<String, Object> rejectionBody = Map.of(
+				"status", HttpStatus.PAYLOAD_TOO_LARGE.value(),
+				"message", "Request body exceeds " + config.getMaxSize());
+
+		return (exchange, chain) -> {
+			long declared = exchange.getRequest().getHeaders().getContentLength();
+			if (declared > maxBytes) {
+				count(routeId, "declared");
+				log.debug("Rejecting body of {} bytes on route={} (limit {})", declared, routeId, maxBytes);
+				return GatewayResponses.writeJson(exchange.getResponse(), HttpStatus.PAYLOAD_TOO_LARGE, rejectionBody, objectMapper);
+			}
+
+			ServerHttpRequest limited = new LimitedBodyRequest(exchange.getRequest(), maxBytes);
+			return chain.filter(exchange.mutate().request(limited).build())
+					// the routing client reports a failed request body wrapped in its own exception
+					.onErrorResume(BodySizeLimitGatewayFilterFactory::isBodyTooLarge, ex -> {
+						count(routeId, "streamed");
+						log.debug("Aborted streamed body over {} bytes on route={}", maxBytes, routeId);
+						if (exchange.getResponse().isCommitted()) {
+							return Mono.error(ex);
+						}
+						return GatewayResponses.writeJson(exchange.getResponse(), HttpStatus.PAYLOAD_TOO_LARGE, rejectionBody, objectMapper);
+					});
+		};
+	}
+
+	private static boolean isBodyTooLarge(Throwable ex) {
+		for (Throwable cause = Exceptions.unwrap(ex); cause != null; cause = cause.getCause()) {
+			if (cause instanceof BodyTooLargeException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void count(String routeId, String check) {
+		rejectedCounters.computeIfAbsent(routeId + '|' + check, k -> Counter.builder("gateway.body.limit.rejected")
+				.description("Requests rejected for exceeding the route's body size limit")
+				.tag("route", routeId)
+				.tag("check", check)
+				.register(meterRegistry)).increment();
+	}
+
+	/**
+	 * Forwards the original buffers untouched; only a running byte count is kept.
+	 */
+	private static final class LimitedBodyRequest extends ServerHttpRequestDecorator {
+
+		private final long maxBytes;
+
+		LimitedBodyRequest(ServerHttpRequest delegate, long maxBytes) {
+			super(delegate);
+			this.maxBytes = maxBytes;
+		}
+
+		@Override
+		public Flux<DataBuffer> getBody() {
+			long[] seen = {0};
+			return super.getBody().handle((buffer, sink) -> {
+				seen[0] += buffer.readableByteCount();
+				if (seen[0] > maxBytes) {
+					DataBufferUtils.release(buffer);
+					sink.error(new BodyTooLargeException());
+					return;
+				}
+				sink.next(buffer);
+			});
+		}
+	}
+
+	private static final class BodyTooLargeException extends RuntimeException {
+
+		BodyTooLargeException() {
+			// control flow only; no stack trace needed
+			super("request body too large", null, false, false);
+		}
+	}
+
+	public static class Config implements HasRouteId {
+
+		private String routeId;
+		private DataSize maxSize = DataSize.ofMegabytes(8);
+
+		@Override
+		public String getRouteId() { return routeId; }
+		@Override
+		public void setRouteId(String routeId) { this.routeId = routeId; }
+
+		public DataSize getMaxSize() { return maxSize; }
+		public void setMaxSize(DataSize maxSize) { this.maxSize = maxSize; }
+	}
+}
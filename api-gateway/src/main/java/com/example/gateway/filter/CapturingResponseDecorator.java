@@ -0,0 +1,124 @@
+package com.example.gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Passes the upstream body through to the client untouched while copying it aside, then reports the
+ * copy to a {@link Listener}. Bodies over {@code maxBytes}, streamed bodies and responses rejected by
+ * {@code shouldCapture} are reported as not captured.
+ */
+class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+	interface Listener {
+
+		void onCaptured(int status, HttpHeaders headers, byte[] body);
+
+		void onNotCaptured();
+	}
+
+	// hop-by-hop or per-response headers that must not be replayed to another client
+	private static final Set<String> SKIPPED_HEADERS = Set.of(
+			HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+			HttpHeaders.CONNECTION.toLowerCase(),
+			HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+			HttpHeaders.SET_COOKIE.toLowerCase(),
+			HttpHeaders.DATE.toLowerCase());
+
+	private final int maxBytes;
+	private final Predicate<ServerHttpResponse> shouldCapture;
+	private final Listener listener;
+
+	CapturingResponseDecorator(ServerHttpResponse delegate,
+							   int maxBytes,
+							   Predicate<ServerHttpResponse> shouldCapture,
+							   Listener listener) {
+		super(delegate);
+		this.maxBytes = maxBytes;
+		this.shouldCapture = shouldCapture;
+		this.listener = listener;
+	}
+
+	@Override
+	public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+		HttpStatusCode status = getStatusCode();
+		if (status == null || !shouldCapture.test(this)) {
+			listener.onNotCaptured();
+			return super.writeWith(body);
+		}
+
+		ByteArrayOutputStream captured = new ByteArrayOutputStream();
+		boolean[] overflow = {false};
+
+		Flux<DataBuffer> tee = Flux.from(body)
+				.map(buffer -> (DataBuffer) buffer)
+				.doOnNext(buffer -> {
+					if (overflow[0]) {
+						return;
+					}
+					if (captured.size() + buffer.readableByteCount() > maxBytes) {
+						overflow[0] = true;
+						captured.reset();
+						return;
+					}
+					try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+						while (it.hasNext()) {
+							ByteBuffer bb = it.next();
+							byte[] chunk = new byte[bb.remaining()];
+							bb.get(chunk);
+							captured.write(chunk, 0, chunk.length);
+						}
+					}
+				})
+				.doOnComplete(() -> {
+					if (overflow[0]) {
+						listener.onNotCaptured();
+					} else {
+						listener.onCaptured(status.value(), copyHeaders(getHeaders()), captured.toByteArray());
+					}
+				})
+				.doOnError(ex -> listener.onNotCaptured())
+				.doOnCancel(listener::onNotCaptured);
+
+		return super.writeWith(tee);
+	}
+
+	@Override
+	public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+		// streaming responses are never shared
+		listener.onNotCaptured();
+		return super.writeAndFlushWith(body);
+	}
+
+	static HttpHeaders copyHeaders(HttpHeaders source) {
+		HttpHeaders copy = new HttpHeaders();
+		source.forEach((name, values) -> {
+			if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+				copy.put(name, List.copyOf(values));
+			}
+		});
+		return HttpHeaders.readOnlyHttpHeaders(copy);
+	}
+
+	/**
+	 * Writes a previously captured response to another client.
+	 */
+	static Mono<Void> writeCaptured(ServerHttpResponse response, int status, HttpHeaders headers, byte[] body) {
+		response.setStatusCode(HttpStatusCode.valueOf(status));
+		response.getHeaders().putAll(headers);
+		response.getHeaders().setContentLength(body.length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+	}
+}
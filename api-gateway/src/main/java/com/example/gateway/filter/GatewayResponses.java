@@ -0,0 +1,35 @@
+package com.example.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Writes small JSON bodies for responses the gateway produces itself (rejections, limits).
+ */
+public final class GatewayResponses {
+
+	private GatewayResponses() {
+	}
+
+	public static Mono<Void> writeJson(ServerHttpResponse response,
+									   HttpStatus status,
+									   Map<String, Object> body,
+									   ObjectMapper objectMapper) {
+		byte[] bytes;
+		try {
+			bytes = objectMapper.writeValueAsBytes(body);
+		} catch (JsonProcessingException ex) {
+			bytes = new byte[0];
+		}
+		response.setStatusCode(status);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		response.getHeaders().setContentLength(bytes.length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+	}
+}
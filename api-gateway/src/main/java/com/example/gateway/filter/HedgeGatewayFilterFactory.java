@@ -0,0 +1,454 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.hedge.HedgeBudget;
+import com.example.gateway.hedge.LatencyQuantileTracker;
+import com.example.gateway.metrics.ExchangeTimings;
+import com.example.gateway.upstream.UpstreamConnectionPools;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedged GETs for {@code lb://} routes. The primary request takes the normal path through the load
+ * balancer and routing filters. If its response has not started after the route's observed p95, the same
+ * request is sent to a different instance. Whichever response starts first is streamed back and the
+ * other call is cancelled. Hedges are drawn from the gateway-wide {@link HedgeBudget}, so a general
+ * slowdown turns hedging off instead of doubling the load.
+ * <p>
+ * The primary's status and headers are held back until it wins, so a losing primary never touches the
+ * client response. The hedge carries the same {@link HttpHeadersFilter}-filtered headers as a routed
+ * request. If the primary fails before a hedge was sent, its error is propagated unchanged. Non-GET
+ * requests pass through. Hedge attempts are reported to the load balancer lifecycle, so instance latency
+ * stats keep seeing hedged traffic; a primary cut short by the hedge is reported by
+ * {@link com.example.gateway.upstream.LoadBalancerCancellationGlobalFilter}.
+ *
+ * <pre>
+ * filters:
+ *   - Hedge=50ms
+ * </pre>
+ */
+@Slf4j
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+	static final String HEDGED_HEADER = "X-Hedged";
+
+	private static final int MAX_CHOOSE_ATTEMPTS = 3;
+	private static final int RECOMPUTE_EVERY = 64;
+
+	// survives route refreshes so the learned p95 is kept
+	private final Map<String, LatencyQuantileTracker> trackers = new ConcurrentHashMap<>();
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	// one client per service, on that service's connection pool
+	private final Map<String, WebClient> webClients = new ConcurrentHashMap<>();
+
+	private final LoadBalancerClientFactory clientFactory;
+	private final HedgeBudget budget;
+	private final UpstreamConnectionPools pools;
+	private final WebClient.Builder webClientBuilder;
+	private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+	private final MeterRegistry meterRegistry;
+
+	private volatile List<HttpHeadersFilter> headersFilters;
+
+	public HedgeGatewayFilterFactory(LoadBalancerClientFactory clientFactory,
+									 HedgeBudget budget,
+									 UpstreamConnectionPools pools,
+									 WebClient.Builder webClientBuilder,
+									 ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+									 MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.clientFactory = clientFactory;
+		this.budget = budget;
+		this.pools = pools;
+		this.webClientBuilder = webClientBuilder;
+		this.headersFiltersProvider = headersFiltersProvider;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("initialDelay");
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+		LatencyQuantileTracker tracker = trackers.computeIfAbsent(routeId, id -> newTracker(id, config));
+
+		return (exchange, chain) -> {
+			if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+				return chain.filter(exchange);
+			}
+			Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+			if (route == null || !"lb".equals(route.getUri().getScheme())) {
+				return chain.filter(exchange);
+			}
+			String serviceId = route.getUri().getHost();
+			ReactorServiceInstanceLoadBalancer loadBalancer =
+					clientFactory.getInstance(serviceId, ReactorServiceInstanceLoadBalancer.class);
+			if (loadBalancer == null) {
+				return chain.filter(exchange);
+			}
+
+			budget.deposit();
+			Duration delay = hedgeDelay(tracker, config);
+			Set<LoadBalancerLifecycle> lifecycles = lifecycles(serviceId);
+			Race race = new Race();
+			Sinks.Empty<Void> hedgeDone = Sinks.empty();
+			long start = System.nanoTime();
+
+			PrimaryResponse primaryResponse = new PrimaryResponse(exchange.getResponse(), race, tracker, start);
+			Mono<Void> primary = chain.filter(exchange.mutate().response(primaryResponse).build())
+					// a hedge whose response started first cuts the primary short
+					.takeUntilOther(race.hedgeWon.asMono())
+					.then(Mono.defer(() -> race.winner() == Race.HEDGE ? hedgeDone.asMono() : Mono.empty()));
+
+			Mono<Void> hedge = Mono.delay(delay)
+					.filter(tick -> race.winner() == Race.NONE && budget.tryWithdraw())
+					.flatMap(tick -> hedge(exchange, serviceId, loadBalancer, lifecycles, tracker, race, routeId, start));
+
+			return Mono.defer(() -> {
+				race.hedgeTask = hedge.subscribe(
+						done -> { },
+						ex -> hedgeDone.tryEmitError(ex),
+						() -> hedgeDone.tryEmitEmpty());
+				return primary
+						// a primary that failed before writing anything defers to a hedge already out
+						.onErrorResume(ex -> race.hedgeSent && race.winner() != Race.PRIMARY
+								? hedgeDone.asMono().onErrorMap(hedgeError -> ex)
+								: Mono.error(ex))
+						.doFinally(signal -> {
+							if (signal == SignalType.CANCEL || race.winner() != Race.HEDGE) {
+								race.hedgeTask.dispose();
+							}
+						});
+			});
+		};
+	}
+
+	/**
+	 * The hedge: a GET to another instance than the primary's. If its response starts first it claims
+	 * the client response and streams its body; otherwise the body is released.
+	 */
+	@SuppressWarnings("unchecked")
+	private Mono<Void> hedge(ServerWebExchange exchange,
+							 String serviceId,
+							 ReactorServiceInstanceLoadBalancer loadBalancer,
+							 Set<LoadBalancerLifecycle> lifecycles,
+							 LatencyQuantileTracker tracker,
+							 Race race,
+							 String routeId,
+							 long hedgeStart) {
+
+		ServerHttpRequest request = exchange.getRequest();
+		Request<RequestDataContext> lbRequest =
+				new DefaultRequest<>(new RequestDataContext(new RequestData(request), "default"));
+		lifecycles.forEach(lifecycle -> lifecycle.onStart(lbRequest));
+
+		Response<ServiceInstance> primaryChoice = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+		ServiceInstance exclude = primaryChoice != null ? primaryChoice.getServer() : null;
+		HttpHeaders requestHeaders = HttpHeadersFilter.filterRequest(headersFilters(), exchange);
+		WebClient webClient = webClients.computeIfAbsent(serviceId, id -> webClientBuilder.clone()
+				.clientConnector(new ReactorClientHttpConnector(pools.httpClient(id)))
+				.build());
+
+		return choose(loadBalancer, lbRequest, exclude)
+				.flatMap(lbResponse -> {
+					race.hedgeSent = true;
+					count(routeId, "sent");
+					log.debug("Hedging route={} to {}", routeId, lbResponse.getServer().getInstanceId());
+					lifecycles.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+					URI uri = upstreamUri(request.getURI(), lbResponse.getServer());
+					long start = System.nanoTime();
+
+					return webClient.get()
+							.uri(uri)
+							.headers(headers -> headers.addAll(requestHeaders))
+							.exchangeToMono(response -> {
+								tracker.record(System.nanoTime() - start);
+								complete(lifecycles, new CompletionContext<>(CompletionContext.Status.SUCCESS,
+										lbRequest, lbResponse, new ResponseData(response, new RequestData(request))));
+								if (!race.claim(Race.HEDGE)) {
+									return response.releaseBody();
+								}
+								race.hedgeWon.tryEmitEmpty();
+								count(routeId, "won");
+								// what the routing filters would have recorded had they run
+								exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, uri);
+								ExchangeTimings timings = ExchangeTimings.of(exchange);
+								if (timings != null) {
+									timings.upstreamCompleted(System.nanoTime() - hedgeStart);
+								}
+								return write(exchange, response);
+							})
+							.doOnError(ex -> complete(lifecycles, new CompletionContext<>(CompletionContext.Status.FAILED,
+									ex, lbRequest, lbResponse)))
+							// the loser: report it so the instance's in-flight count is released
+							.doOnCancel(() -> complete(lifecycles, new CompletionContext<>(CompletionContext.Status.DISCARD,
+									lbRequest, lbResponse)));
+				});
+	}
+
+	private Mono<Response<ServiceInstance>> choose(ReactorServiceInstanceLoadBalancer loadBalancer,
+												   Request<RequestDataContext> lbRequest,
+												   ServiceInstance exclude) {
+		return Mono.from(loadBalancer.choose(lbRequest))
+				.repeat(MAX_CHOOSE_ATTEMPTS - 1)
+				.filter(response -> response.hasServer()
+						&& (exclude == null || !sameInstance(response.getServer(), exclude)))
+				.next();
+	}
+
+	private Mono<Void> write(ServerWebExchange exchange, ClientResponse upstream) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(upstream.statusCode());
+		response.getHeaders().addAll(HttpHeadersFilter.filter(headersFilters(), upstream.headers().asHttpHeaders(),
+				exchange, HttpHeadersFilter.Type.RESPONSE));
+		response.getHeaders().set(HEDGED_HEADER, "true");
+		return response.writeWith(upstream.bodyToFlux(DataBuffer.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void complete(Set<LoadBalancerLifecycle> lifecycles, CompletionContext<?, ?, ?> context) {
+		lifecycles.forEach(lifecycle -> lifecycle.onComplete(context));
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Set<LoadBalancerLifecycle> lifecycles(String serviceId) {
+		return LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+				clientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+				RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+	}
+
+	private List<HttpHeadersFilter> headersFilters() {
+		List<HttpHeadersFilter> filters = headersFilters;
+		if (filters == null) {
+			filters = headersFiltersProvider.getIfAvailable(List::of);
+			headersFilters = filters;
+		}
+		return filters;
+	}
+
+	private static URI upstreamUri(URI requestUri, ServiceInstance instance) {
+		return UriComponentsBuilder.fromUri(requestUri)
+				.scheme(instance.isSecure() ? "https" : "http")
+				.host(instance.getHost())
+				.port(instance.getPort())
+				.build(true)
+				.toUri();
+	}
+
+	private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+		return Objects.equals(a.getHost(), b.getHost()) && a.getPort() == b.getPort();
+	}
+
+	private static Duration hedgeDelay(LatencyQuantileTracker tracker, Config config) {
+		long observed = tracker.quantileNanos();
+		Duration delay = observed < 0 ? config.getInitialDelay() : Duration.ofNanos(observed);
+		if (delay.compareTo(config.getMinDelay()) < 0) {
+			return config.getMinDelay();
+		}
+		return delay.compareTo(config.getMaxDelay()) > 0 ? config.getMaxDelay() : delay;
+	}
+
+	private LatencyQuantileTracker newTracker(String routeId, Config config) {
+		LatencyQuantileTracker tracker = new LatencyQuantileTracker(config.getWindowSize(), config.getQuantile(), RECOMPUTE_EVERY);
+		Gauge.builder("gateway.hedge.delay", tracker, t -> hedgeDelay(t, config).toNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+				.description("Delay before a hedge is sent, derived from observed upstream latency")
+				.tag("route", routeId)
+				.baseUnit("seconds")
+				.register(meterRegistry);
+		return tracker;
+	}
+
+	private void count(String routeId, String result) {
+		counters.computeIfAbsent(routeId + '|' + result, k -> Counter.builder("gateway.hedge.requests")
+				.description("Hedged GET requests sent and won")
+				.tag("route", routeId)
+				.tag("result", result)
+				.register(meterRegistry)).increment();
+	}
+
+	/** Who owns the client response. Decided once, by whichever response starts first. */
+	private static final class Race {
+
+		static final int NONE = 0;
+		static final int PRIMARY = 1;
+		static final int HEDGE = 2;
+
+		private final AtomicInteger winner = new AtomicInteger(NONE);
+		final Sinks.Empty<Void> hedgeWon = Sinks.empty();
+		volatile boolean hedgeSent;
+		volatile Disposable hedgeTask = Disposables.disposed();
+
+		boolean claim(int contender) {
+			return winner.compareAndSet(NONE, contender) || winner.get() == contender;
+		}
+
+		int winner() {
+			return winner.get();
+		}
+	}
+
+	/**
+	 * The client response as the primary's routing filters see it. Status and headers stay local until the
+	 * first write, which claims the race; a primary that lost has its body released instead.
+	 */
+	private static final class PrimaryResponse extends ServerHttpResponseDecorator {
+
+		private final Race race;
+		private final LatencyQuantileTracker tracker;
+		private final long start;
+		private final HttpHeaders headers = new HttpHeaders();
+		private HttpStatusCode status;
+
+		PrimaryResponse(ServerHttpResponse delegate, Race race, LatencyQuantileTracker tracker, long start) {
+			super(delegate);
+			this.race = race;
+			this.tracker = tracker;
+			this.start = start;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return race.winner() == Race.PRIMARY ? getDelegate().getHeaders() : headers;
+		}
+
+		@Override
+		public boolean setStatusCode(HttpStatusCode status) {
+			if (race.winner() == Race.PRIMARY) {
+				return getDelegate().setStatusCode(status);
+			}
+			this.status = status;
+			return true;
+		}
+
+		@Override
+		@Deprecated
+		public boolean setRawStatusCode(Integer value) {
+			return setStatusCode(value != null ? HttpStatusCode.valueOf(value) : null);
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() {
+			return race.winner() == Race.PRIMARY || status == null ? getDelegate().getStatusCode() : status;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			return claim() ? super.writeWith(body) : release(body);
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return claim() ? super.writeAndFlushWith(body) : release(Flux.from(body).flatMap(Flux::from));
+		}
+
+		@Override
+		public Mono<Void> setComplete() {
+			return claim() ? super.setComplete() : Mono.empty();
+		}
+
+		private boolean claim() {
+			if (race.winner() == Race.PRIMARY) {
+				return true;
+			}
+			if (!race.claim(Race.PRIMARY)) {
+				return false;
+			}
+			race.hedgeTask.dispose();
+			tracker.record(System.nanoTime() - start);
+			if (status != null) {
+				getDelegate().setStatusCode(status);
+			}
+			getDelegate().getHeaders().putAll(headers);
+			return true;
+		}
+
+		private static Mono<Void> release(Publisher<? extends DataBuffer> body) {
+			return Flux.from(body).doOnNext(DataBufferUtils::release).then();
+		}
+	}
+
+	public static class Config implements HasRouteId {
+
+		private String routeId;
+		private Duration initialDelay = Duration.ofMillis(50);
+		private Duration minDelay = Duration.ofMillis(5);
+		private Duration maxDelay = Duration.ofSeconds(1);
+		private double quantile = 0.95;
+		private int windowSize = 1024;
+
+		@Override
+		public String getRouteId() { return routeId; }
+		@Override
+		public void setRouteId(String routeId) { this.routeId = routeId; }
+
+		public Duration getInitialDelay() { return initialDelay; }
+		public void setInitialDelay(Duration initialDelay) { this.initialDelay = initialDelay; }
+
+		public Duration getMinDelay() { return minDelay; }
+		public void setMinDelay(Duration minDelay) { this.minDelay = minDelay; }
+
+		public Duration getMaxDelay() { return maxDelay; }
+		public void setMaxDelay(Duration maxDelay) { this.maxDelay = maxDelay; }
+
+		public double getQuantile() { return quantile; }
+		public void setQuantile(double quantile) { this.quantile = quantile; }
+
+		public int getWindowSize() { return windowSize; }
+		public void setWindowSize(int windowSize) { this.windowSize = windowSize; }
+	}
+}
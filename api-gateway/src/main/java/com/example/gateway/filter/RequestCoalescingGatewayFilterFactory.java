@@ -0,0 +1,178 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.cache.CacheKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight for idempotent GETs: concurrent identical requests (same route, path, query and subject)
+ * share one upstream call. The first request leads and forwards; the others wait up to {@code maxWait}
+ * for its response and fall back to their own upstream call if it does not arrive or cannot be shared.
+ * Nothing is kept once the flight lands, so there is no staleness.
+ *
+ * <pre>
+ * filters:
+ *   - name: RequestCoalescing
+ *     args:
+ *       maxWait: 2s
+ * </pre>
+ */
+@Slf4j
+@Component
+public class RequestCoalescingGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+	static final String COALESCED_HEADER = "X-Coalesced";
+
+	private final Map<CacheKey, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	public RequestCoalescingGatewayFilterFactory(MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("maxWait");
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		Duration maxWait = config.getMaxWait();
+		int maxBodyBytes = (int) config.getMaxBodySize().toBytes();
+
+		GatewayFilter filter = (exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+			if (!HttpMethod.GET.equals(request.getMethod())) {
+				return chain.filter(exchange);
+			}
+
+			Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+			String routeId = route != null ? route.getId() : "unknown";
+
+			return exchange.getPrincipal()
+					.map(Principal::getName)
+					.defaultIfEmpty(ResponseCacheGatewayFilterFactory.ANONYMOUS)
+					.flatMap(subject -> {
+						CacheKey key = new CacheKey(routeId, request.getURI().getRawPath(), request.getURI().getRawQuery(), subject);
+
+						Sinks.One<SharedResponse> mine = Sinks.one();
+						Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, mine);
+						if (existing == null) {
+							count(routeId, "leader");
+							return lead(exchange, chain, key, mine, maxBodyBytes);
+						}
+						count(routeId, "follower");
+						return follow(exchange, chain, routeId, existing, maxWait);
+					});
+		};
+
+		// after ResponseCache (so cache hits never wait on a flight), before the response is written
+		return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+	}
+
+	private Mono<Void> lead(ServerWebExchange exchange,
+							GatewayFilterChain chain,
+							CacheKey key,
+							Sinks.One<SharedResponse> sink,
+							int maxBodyBytes) {
+
+		CapturingResponseDecorator capturing = new CapturingResponseDecorator(
+				exchange.getResponse(),
+				maxBodyBytes,
+				response -> true,
+				new CapturingResponseDecorator.Listener() {
+					@Override
+					public void onCaptured(int status, HttpHeaders headers, byte[] body) {
+						// unregister first so late arrivals start a new flight instead of joining a finished one
+						inFlight.remove(key, sink);
+						sink.tryEmitValue(new SharedResponse(status, headers, body));
+					}
+
+					@Override
+					public void onNotCaptured() {
+						land(key, sink);
+					}
+				});
+
+		return chain.filter(exchange.mutate().response(capturing).build())
+				.doFinally(signal -> land(key, sink));
+	}
+
+	private Mono<Void> follow(ServerWebExchange exchange,
+							  GatewayFilterChain chain,
+							  String routeId,
+							  Sinks.One<SharedResponse> flight,
+							  Duration maxWait) {
+
+		return flight.asMono()
+				.timeout(maxWait)
+				.flatMap(shared -> {
+					exchange.getResponse().getHeaders().set(COALESCED_HEADER, "true");
+					return CapturingResponseDecorator.writeCaptured(exchange.getResponse(), shared.status(), shared.headers(), shared.body());
+				})
+				.switchIfEmpty(Mono.defer(() -> {
+					// leader's response could not be shared (too large, streamed, failed)
+					count(routeId, "fallback");
+					return chain.filter(exchange);
+				}))
+				.onErrorResume(TimeoutException.class, ex -> {
+					log.debug("Coalesced request gave up waiting after {} route={}", maxWait, routeId);
+					count(routeId, "fallback");
+					return chain.filter(exchange);
+				});
+	}
+
+	private void land(CacheKey key, Sinks.One<SharedResponse> sink) {
+		inFlight.remove(key, sink);
+		sink.tryEmitEmpty();
+	}
+
+	private void count(String routeId, String role) {
+		counters.computeIfAbsent(routeId + '|' + role, k -> Counter.builder("gateway.coalescing.requests")
+				.description("GET requests by single-flight role")
+				.tag("route", routeId)
+				.tag("role", role)
+				.register(meterRegistry)).increment();
+	}
+
+	private record SharedResponse(int status, HttpHeaders headers, byte[] body) {
+	}
+
+	public static class Config {
+
+		private Duration maxWait = Duration.ofSeconds(2);
+		private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+		public Duration getMaxWait() { return maxWait; }
+		public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+
+		public DataSize getMaxBodySize() { return maxBodySize; }
+		public void setMaxBodySize(DataSize maxBodySize) { this.maxBodySize = maxBodySize; }
+	}
+}
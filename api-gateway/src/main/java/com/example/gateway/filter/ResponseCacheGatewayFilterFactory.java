@@ -0,0 +1,142 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.cache.CacheKey;
+import com.example.gateway.cache.CachedResponse;
+import com.example.gateway.cache.ResponseCacheStore;
+import com.example.gateway.config.ResponseCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Caches successful GET responses per (route, path, query, subject).
+ * Entries expire after {@code ttl} and are evicted early by change events (see {@code ResponseCacheInvalidationConfig}).
+ *
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 30s
+ * </pre>
+ */
+@Slf4j
+@Component
+public class ResponseCacheGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+	static final String ANONYMOUS = "anonymous";
+	static final String CACHE_STATUS_HEADER = "X-Cache";
+
+	private final ResponseCacheStore store;
+	private final ResponseCacheProperties properties;
+
+	public ResponseCacheGatewayFilterFactory(ResponseCacheStore store, ResponseCacheProperties properties) {
+		super(Config.class);
+		this.store = store;
+		this.properties = properties;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("ttl");
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		Duration ttl = config.getTtl() != null ? config.getTtl() : properties.getTtl();
+		long ttlNanos = ttl.toNanos();
+		int maxEntryBytes = (int) properties.getMaxEntrySize().toBytes();
+		boolean respectCacheControl = config.isRespectCacheControl();
+
+		GatewayFilter filter = (exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+			if (!HttpMethod.GET.equals(request.getMethod())) {
+				return chain.filter(exchange);
+			}
+
+			Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+			String routeId = route != null ? route.getId() : "unknown";
+			String path = request.getURI().getRawPath();
+			String query = request.getURI().getRawQuery();
+			boolean bypassLookup = request.getHeaders().getCacheControl() != null
+					&& request.getHeaders().getCacheControl().contains("no-cache");
+
+			return exchange.getPrincipal()
+					.map(Principal::getName)
+					.defaultIfEmpty(ANONYMOUS)
+					.flatMap(subject -> {
+						CacheKey key = new CacheKey(routeId, path, query, subject);
+
+						CachedResponse cached = bypassLookup ? null : store.get(key);
+						if (cached != null) {
+							log.debug("Response cache hit route={} path={}", routeId, path);
+							return writeCached(exchange.getResponse(), cached);
+						}
+
+						Set<String> tags = store.tagsFor(path);
+						long[] versions = store.snapshotVersions(tags);
+						ServerHttpResponse capturing = new CapturingResponseDecorator(
+								exchange.getResponse(),
+								maxEntryBytes,
+								response -> response.getStatusCode().value() == 200
+										&& !(respectCacheControl && isNoStore(response.getHeaders())),
+								new CapturingResponseDecorator.Listener() {
+									@Override
+									public void onCaptured(int status, HttpHeaders headers, byte[] body) {
+										store.put(key, new CachedResponse(status, headers, body, tags, ttlNanos), versions);
+									}
+
+									@Override
+									public void onNotCaptured() {
+									}
+								});
+
+						return chain.filter(exchange.mutate().response(capturing).build());
+					});
+		};
+
+		// must wrap the response before NettyWriteResponseFilter writes it, and see the path before StripPrefix;
+		// runs ahead of RequestCoalescing so hits never join a flight
+		return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2);
+	}
+
+	private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached) {
+		response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+		return CapturingResponseDecorator.writeCaptured(response, cached.status(), cached.headers(), cached.body());
+	}
+
+	private static boolean isNoStore(HttpHeaders headers) {
+		String cacheControl = headers.getCacheControl();
+		return cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"));
+	}
+
+	public static class Config {
+
+		private Duration ttl;
+
+		// downstream services send Spring Security's default no-store on everything; the gateway owns
+		// invalidation for these routes, so upstream Cache-Control is ignored unless asked for
+		private boolean respectCacheControl = false;
+
+		public Duration getTtl() { return ttl; }
+		public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+		public boolean isRespectCacheControl() { return respectCacheControl; }
+		public void setRespectCacheControl(boolean respectCacheControl) { this.respectCacheControl = respectCacheControl; }
+	}
+}
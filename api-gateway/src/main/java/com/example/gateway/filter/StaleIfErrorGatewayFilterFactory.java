@@ -0,0 +1,186 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.cache.CacheKey;
+import com.example.gateway.cache.LastKnownGoodStore;
+import com.example.gateway.cache.StaleResponse;
+import com.example.gateway.config.StaleIfErrorProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Remembers the last successful response of a GET per (route, path, query, subject) in the
+ * {@link LastKnownGoodStore} and serves it while the upstream is failing. That covers an upstream or
+ * fallback 502/503/504 (open circuit breaker, adaptive concurrency rejection, no instance) and errors
+ * such as timeouts and refused connections. Stale responses carry {@code Warning: 110}, {@code Age} and
+ * {@code X-Cache: STALE}. Without a usable entry the original failure goes through unchanged.
+ *
+ * <pre>
+ * filters:
+ *   - StaleIfError=10m
+ * </pre>
+ */
+@Slf4j
+@Component
+public class StaleIfErrorGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<StaleIfErrorGatewayFilterFactory.Config> {
+
+	private static final Set<Integer> FALLBACK_STATUSES = Set.of(502, 503, 504);
+	private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+	private final LastKnownGoodStore store;
+	private final StaleIfErrorProperties properties;
+
+	public StaleIfErrorGatewayFilterFactory(LastKnownGoodStore store, StaleIfErrorProperties properties) {
+		super(Config.class);
+		this.store = store;
+		this.properties = properties;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("maxStale");
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		Duration maxStale = config.getMaxStale() != null ? config.getMaxStale() : properties.getMaxStale();
+		long maxStaleMillis = maxStale.toMillis();
+		int maxEntryBytes = (int) properties.getMaxEntrySize().toBytes();
+
+		GatewayFilter filter = (exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+			if (!HttpMethod.GET.equals(request.getMethod())) {
+				return chain.filter(exchange);
+			}
+
+			Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+			String routeId = route != null ? route.getId() : "unknown";
+			String path = request.getURI().getRawPath();
+			String query = request.getURI().getRawQuery();
+			ServerHttpResponse original = exchange.getResponse();
+
+			return exchange.getPrincipal()
+					.map(Principal::getName)
+					.defaultIfEmpty(ResponseCacheGatewayFilterFactory.ANONYMOUS)
+					.flatMap(subject -> {
+						CacheKey key = new CacheKey(routeId, path, query, subject);
+						// looked up only once a failure is seen, and at most once: the error path and the 5xx body
+						// path share the result, so gateway.stale.lookups counts one per failed request
+						Mono<StaleResponse> stale = Mono.defer(() -> store.find(key))
+								.filter(found -> System.currentTimeMillis() - found.storedAtMillis() <= maxStaleMillis)
+								.cache();
+
+						ServerHttpResponse capturing = new CapturingResponseDecorator(
+								original,
+								maxEntryBytes,
+								// cache hits are already someone's captured copy; re-storing them would reset their age
+								response -> response.getStatusCode().value() == 200
+										&& !"HIT".equals(response.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER)),
+								new CapturingResponseDecorator.Listener() {
+									@Override
+									public void onCaptured(int status, HttpHeaders headers, byte[] body) {
+										store.put(key, new StaleResponse(status, headers, body, System.currentTimeMillis()));
+									}
+
+									@Override
+									public void onNotCaptured() {
+									}
+								});
+						ServerHttpResponse substituting = new StaleOnFailureResponse(capturing, original, stale, routeId, path);
+
+						return chain.filter(exchange.mutate().response(substituting).build())
+								.onErrorResume(ex -> !isUpstreamFailure(ex) || original.isCommitted()
+										? Mono.error(ex)
+										: stale.flatMap(found -> {
+													log.debug("Serving stale response route={} path={} after {}", routeId, path, ex.toString());
+													return writeStale(original, found).thenReturn(true);
+												})
+												.switchIfEmpty(Mono.error(ex))
+												.then());
+					});
+		};
+
+		// outermost of the response-wrapping filters: a stale write must not pass through ResponseCache's capture
+		return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3);
+	}
+
+	private static boolean isUpstreamFailure(Throwable ex) {
+		return !(ex instanceof ResponseStatusException statusException) || statusException.getStatusCode().is5xxServerError();
+	}
+
+	private static Mono<Void> writeStale(ServerHttpResponse response, StaleResponse stale) {
+		response.getHeaders().clear();
+		response.getHeaders().set(HttpHeaders.WARNING, STALE_WARNING);
+		response.getHeaders().set(HttpHeaders.AGE, Long.toString(Math.max(0, (System.currentTimeMillis() - stale.storedAtMillis()) / 1000)));
+		response.getHeaders().set(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER, "STALE");
+		return CapturingResponseDecorator.writeCaptured(response, stale.status(), stale.headers(), stale.body());
+	}
+
+	/**
+	 * Swaps a 502/503/504 body, whether from the upstream, a fallback or a gateway-side rejection, for the stale copy.
+	 * The failed body is drained so the upstream connection is released.
+	 */
+	private static final class StaleOnFailureResponse extends ServerHttpResponseDecorator {
+
+		private final ServerHttpResponse original;
+		private final Mono<StaleResponse> stale;
+		private final String routeId;
+		private final String path;
+
+		StaleOnFailureResponse(ServerHttpResponse delegate, ServerHttpResponse original,
+							   Mono<StaleResponse> stale, String routeId, String path) {
+			super(delegate);
+			this.original = original;
+			this.stale = stale;
+			this.routeId = routeId;
+			this.path = path;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			HttpStatusCode status = getStatusCode();
+			if (status == null || !FALLBACK_STATUSES.contains(status.value())) {
+				return super.writeWith(body);
+			}
+			return stale
+					.flatMap(found -> {
+						log.debug("Serving stale response route={} path={} instead of {}", routeId, path, status.value());
+						return Flux.from(body).doOnNext(DataBufferUtils::release).then(writeStale(original, found)).thenReturn(true);
+					})
+					.switchIfEmpty(Mono.defer(() -> super.writeWith(body).thenReturn(true)))
+					.then();
+		}
+	}
+
+	public static class Config {
+
+		/** Overrides {@code gateway.stale-if-error.max-stale} for this route; it can only narrow what the store keeps. */
+		private Duration maxStale;
+
+		public Duration getMaxStale() { return maxStale; }
+		public void setMaxStale(Duration maxStale) { this.maxStale = maxStale; }
+	}
+}
@@ -0,0 +1,64 @@
+package com.example.gateway.hedge;
+
+import com.example.gateway.config.HedgeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gateway-wide token bucket that caps hedged requests at a percentage of primary traffic.
+ * Every primary request deposits {@code percent / 100} of a token (kept in milli-tokens to stay integral);
+ * a hedge withdraws a whole token. When upstreams slow down globally, hedges drain the bucket and stop,
+ * so hedging cannot amplify an overload.
+ */
+@Component
+public class HedgeBudget {
+
+	private static final long TOKEN = 1000;
+
+	private final long depositPerRequest;
+	private final long maxBalance;
+	private final AtomicLong balance;
+
+	private final Counter grantedCounter;
+	private final Counter deniedCounter;
+
+	public HedgeBudget(HedgeProperties properties, MeterRegistry meterRegistry) {
+		this.depositPerRequest = Math.round(properties.getBudgetPercent() * TOKEN / 100.0);
+		this.maxBalance = properties.getMaxBurst() * TOKEN;
+		this.balance = new AtomicLong(maxBalance);
+
+		this.grantedCounter = Counter.builder("gateway.hedge.budget")
+				.description("Hedge attempts checked against the global budget")
+				.tag("result", "granted")
+				.register(meterRegistry);
+		this.deniedCounter = Counter.builder("gateway.hedge.budget")
+				.description("Hedge attempts checked against the global budget")
+				.tag("result", "denied")
+				.register(meterRegistry);
+		Gauge.builder("gateway.hedge.budget.balance", balance, b -> (double) b.get() / TOKEN)
+				.description("Hedge tokens currently available")
+				.register(meterRegistry);
+	}
+
+	public void deposit() {
+		balance.getAndUpdate(b -> Math.min(maxBalance, b + depositPerRequest));
+	}
+
+	public boolean tryWithdraw() {
+		while (true) {
+			long current = balance.get();
+			if (current < TOKEN) {
+				deniedCounter.increment();
+				return false;
+			}
+			if (balance.compareAndSet(current, current - TOKEN)) {
+				grantedCounter.increment();
+				return true;
+			}
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.gateway.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding-window latency quantile over the last {@code capacity} samples.
+ * Recording is a single array store; the quantile is recomputed (sort of a copy) every
+ * {@code recomputeEvery} samples by whichever thread crosses the boundary, and read as a volatile.
+ */
+public class LatencyQuantileTracker {
+
+	private final AtomicLongArray samples;
+	// total samples recorded; a long so a long-lived gateway never wraps it
+	private final AtomicLong recorded = new AtomicLong();
+	private final double quantile;
+	private final int recomputeEvery;
+
+	private volatile long quantileNanos = -1;
+
+	public LatencyQuantileTracker(int capacity, double quantile, int recomputeEvery) {
+		this.samples = new AtomicLongArray(capacity);
+		this.quantile = quantile;
+		this.recomputeEvery = recomputeEvery;
+	}
+
+	public void record(long latencyNanos) {
+		long n = recorded.getAndIncrement();
+		samples.set((int) (n % samples.length()), latencyNanos);
+		if ((n + 1) % recomputeEvery == 0) {
+			recompute((int) Math.min(n + 1, samples.length()));
+		}
+	}
+
+	/**
+	 * @return the tracked quantile in nanoseconds, or -1 until the first {@code recomputeEvery} samples are in.
+	 *         Before the window has filled, the quantile covers the samples recorded so far.
+	 */
+	public long quantileNanos() {
+		return quantileNanos;
+	}
+
+	private void recompute(int filled) {
+		long[] copy = new long[filled];
+		for (int i = 0; i < filled; i++) {
+			copy[i] = samples.get(i);
+		}
+		Arrays.sort(copy);
+		int idx = (int) Math.min(filled - 1, Math.ceil(quantile * filled) - 1);
+		quantileNanos = copy[Math.max(0, idx)];
+	}
+}
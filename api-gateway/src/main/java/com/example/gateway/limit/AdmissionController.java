@@ -0,0 +1,80 @@
+package com.example.gateway.limit;
+
+import com.example.gateway.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gateway-wide admission by {@link Priority}. Every class shares one in-flight count and one event-loop
+ * lag reading but has its own thresholds, so as pressure builds {@code SHEDDABLE} crosses its limits first,
+ * then {@code NORMAL}, while {@code CRITICAL} keeps being admitted until the hard ceiling.
+ */
+public class AdmissionController {
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final EventLoopLagProbe lagProbe;
+
+	private final Map<Priority, Limits> limits = new EnumMap<>(Priority.class);
+
+	public AdmissionController(LoadSheddingProperties properties, EventLoopLagProbe lagProbe, MeterRegistry meterRegistry) {
+		this.lagProbe = lagProbe;
+
+		for (Priority priority : Priority.values()) {
+			LoadSheddingProperties.Threshold threshold = properties.getThresholds().get(priority);
+			if (threshold == null) {
+				throw new IllegalStateException("gateway.load-shedding.thresholds." + priority.name().toLowerCase() + " is not configured");
+			}
+			limits.put(priority, new Limits(
+					threshold.getMaxInFlight(),
+					threshold.getMaxLoopLag().toNanos(),
+					counter(meterRegistry, priority, "admitted"),
+					counter(meterRegistry, priority, "shed")));
+		}
+
+		Gauge.builder("gateway.shedding.inflight", inFlight, AtomicInteger::get)
+				.description("Requests currently admitted by the gateway")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * @return true if admitted; the caller must then {@link #release()} exactly once
+	 */
+	public boolean tryAdmit(Priority priority) {
+		Limits classLimits = limits.get(priority);
+		if (lagProbe.lagNanos() > classLimits.maxLoopLagNanos()) {
+			classLimits.shed().increment();
+			return false;
+		}
+		while (true) {
+			int current = inFlight.get();
+			if (current >= classLimits.maxInFlight()) {
+				classLimits.shed().increment();
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				classLimits.admitted().increment();
+				return true;
+			}
+		}
+	}
+
+	public void release() {
+		inFlight.decrementAndGet();
+	}
+
+	private static Counter counter(MeterRegistry meterRegistry, Priority priority, String result) {
+		return Counter.builder("gateway.shedding.requests")
+				.description("Requests admitted or shed by priority class")
+				.tag("priority", priority.name().toLowerCase())
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	private record Limits(int maxInFlight, long maxLoopLagNanos, Counter admitted, Counter shed) {
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.gateway.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a task waits before the server's event loops run it. Every interval a no-op is
+ * submitted to the next loop (round-robin); the delay until it runs is the lag. While a probe is still
+ * pending, the time it has been waiting counts as lag too, so a fully blocked loop is seen immediately
+ * rather than only after it recovers.
+ */
+@Slf4j
+public class EventLoopLagProbe implements SmartLifecycle {
+
+	private final EventLoopGroup eventLoops;
+	private final long intervalNanos;
+
+	private volatile long lastLagNanos;
+	private volatile long pendingSince;
+
+	private ScheduledExecutorService scheduler;
+	private volatile boolean running;
+
+	public EventLoopLagProbe(EventLoopGroup eventLoops, Duration interval, MeterRegistry meterRegistry) {
+		this.eventLoops = eventLoops;
+		this.intervalNanos = interval.toNanos();
+
+		Gauge.builder("gateway.shedding.loop.lag", this, probe -> probe.lagNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+				.description("Delay before a task submitted to the server event loops runs")
+				.baseUnit("seconds")
+				.register(meterRegistry);
+	}
+
+	public long lagNanos() {
+		long since = pendingSince;
+		long pending = since != 0 ? System.nanoTime() - since : 0;
+		return Math.max(lastLagNanos, pending);
+	}
+
+	private void probe() {
+		if (pendingSince != 0) {
+			return;
+		}
+		long submitted = System.nanoTime();
+		pendingSince = submitted;
+		try {
+			eventLoops.next().execute(() -> {
+				lastLagNanos = System.nanoTime() - submitted;
+				pendingSince = 0;
+			});
+		} catch (RuntimeException ex) {
+			// loops shutting down
+			pendingSince = 0;
+		}
+	}
+
+	@Override
+	public void start() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "event-loop-lag-probe");
+			t.setDaemon(true);
+			return t;
+		});
+		scheduler.scheduleAtFixedRate(this::probe, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+		running = true;
+		log.info("Event loop lag probe started (interval={}ms)", TimeUnit.NANOSECONDS.toMillis(intervalNanos));
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+}
@@ -0,0 +1,143 @@
+package com.example.gateway.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style adaptive concurrency limit driven by observed round-trip time.
+ * <p>
+ * A slow-moving average of RTT ({@code longRtt}) acts as the no-load baseline. Every sample window the
+ * window's average RTT ({@code shortRtt}) is compared against it:
+ * {@code gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)} and
+ * {@code newLimit = limit * gradient + sqrt(limit)}. When latency is flat the limit grows by its queue
+ * allowance; when latency climbs the limit shrinks proportionally. Failures in a window apply a
+ * multiplicative back-off instead.
+ * <p>
+ * A window whose in-flight count never reached half the limit is app-limited: flat latency there says
+ * nothing about the upstream's capacity, so the limit may shrink but does not grow. Without this guard the
+ * limit drifts up to {@code maxLimit} during quiet periods and no longer protects anything when load arrives.
+ * <p>
+ * {@link #tryAcquire()} / {@link #release} are lock-free; only the once-per-window update synchronizes.
+ */
+public class GradientConcurrencyLimiter {
+
+	private static final double BACKOFF_RATIO = 0.9;
+	private static final double LONG_RTT_ALPHA = 0.05;
+	private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final int MIN_WINDOW_SAMPLES = 10;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double smoothing;
+	private final double rttTolerance;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private volatile double limit;
+
+	// window state, guarded by this
+	private long windowStart = System.nanoTime();
+	private long windowRttSum;
+	private int windowSamples;
+	private int windowMaxInFlight;
+	private boolean windowDropped;
+	private double longRttNanos;
+
+	public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, double rttTolerance) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.smoothing = smoothing;
+		this.rttTolerance = rttTolerance;
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+	}
+
+	/**
+	 * @return false when the current limit is reached and the request should be rejected
+	 */
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= (int) limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * @param rttNanos time the request held its slot
+	 * @param outcome  whether the sample should feed the limit
+	 */
+	public void release(long rttNanos, Outcome outcome) {
+		// includes this request, so a window of strictly sequential calls still sees one in flight
+		int held = inFlight.getAndDecrement();
+		if (outcome == Outcome.IGNORED) {
+			return;
+		}
+		synchronized (this) {
+			windowMaxInFlight = Math.max(windowMaxInFlight, held);
+			if (outcome == Outcome.DROPPED) {
+				windowDropped = true;
+			} else {
+				windowRttSum += rttNanos;
+				windowSamples++;
+			}
+
+			long now = System.nanoTime();
+			if (now - windowStart < WINDOW_NANOS || (windowSamples < MIN_WINDOW_SAMPLES && !windowDropped)) {
+				return;
+			}
+			updateLimit();
+			windowStart = now;
+			windowRttSum = 0;
+			windowSamples = 0;
+			windowMaxInFlight = 0;
+			windowDropped = false;
+		}
+	}
+
+	private void updateLimit() {
+		double current = limit;
+		double next;
+
+		if (windowDropped) {
+			next = current * BACKOFF_RATIO;
+		} else {
+			double shortRtt = (double) windowRttSum / windowSamples;
+			longRttNanos = longRttNanos == 0 ? shortRtt : longRttNanos * (1 - LONG_RTT_ALPHA) + shortRtt * LONG_RTT_ALPHA;
+
+			// let the baseline recover quickly after a period of overload
+			if (longRttNanos / shortRtt > 2) {
+				longRttNanos *= 0.95;
+			}
+
+			double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRtt));
+			double queueSize = Math.sqrt(current);
+			next = current * gradient + queueSize;
+			next = current * (1 - smoothing) + next * smoothing;
+			if (windowMaxInFlight < current / 2) {
+				next = Math.min(next, current);
+			}
+		}
+
+		limit = Math.max(minLimit, Math.min(maxLimit, next));
+	}
+
+	public int getLimit() {
+		return (int) limit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public enum Outcome {
+		/** Completed normally; RTT is a valid sample. */
+		SUCCESS,
+		/** Upstream failed or timed out; signals overload. */
+		DROPPED,
+		/** Cancelled or otherwise uninformative; only frees the slot. */
+		IGNORED
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.gateway.limit;
+
+import com.example.gateway.FallbackController;
+import com.example.gateway.config.LoadSheddingProperties;
+import com.example.gateway.filter.GatewayResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Classifies each request by the configured rules and asks the {@link AdmissionController} to admit it.
+ * Runs ahead of Spring Security so shed requests cost no token verification. Server-sent event streams
+ * are admitted like any other request but do not hold an in-flight slot for their lifetime: the slot is
+ * released once the response commits as {@code text/event-stream}. The response decides, not the
+ * request's {@code Accept} header, which any client could set to avoid holding a slot.
+ */
+@Slf4j
+public class LoadSheddingWebFilter implements WebFilter, Ordered {
+
+	// before WebFilterChainProxy (-100)
+	public static final int ORDER = -200;
+
+	private final AdmissionController admissionController;
+	private final List<CompiledRule> rules;
+	private final Priority defaultPriority;
+	private final Map<String, Object> rejectionBody = FallbackController.unavailable("requested");
+	private final ObjectMapper objectMapper;
+
+	public LoadSheddingWebFilter(AdmissionController admissionController,
+								 LoadSheddingProperties properties,
+								 ObjectMapper objectMapper) {
+		this.admissionController = admissionController;
+		this.defaultPriority = properties.getDefaultPriority();
+		this.objectMapper = objectMapper;
+		this.rules = properties.getRules().stream()
+				.map(rule -> new CompiledRule(
+						PathPatternParser.defaultInstance.parse(rule.getPath()),
+						rule.getMethod() != null ? HttpMethod.valueOf(rule.getMethod().toUpperCase()) : null,
+						rule.getPriority()))
+				.toList();
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		Priority priority = classify(exchange.getRequest());
+		if (!admissionController.tryAdmit(priority)) {
+			log.debug("Shedding {} {} priority={}", exchange.getRequest().getMethod(), exchange.getRequest().getURI().getPath(), priority);
+			exchange.getResponse().getHeaders().set("Retry-After", "1");
+			return GatewayResponses.writeJson(exchange.getResponse(), HttpStatus.SERVICE_UNAVAILABLE, rejectionBody, objectMapper);
+		}
+
+		AtomicBoolean released = new AtomicBoolean();
+		Runnable release = () -> {
+			if (released.compareAndSet(false, true)) {
+				admissionController.release();
+			}
+		};
+		exchange.getResponse().beforeCommit(() -> {
+			if (isEventStream(exchange.getResponse().getHeaders().getContentType())) {
+				release.run();
+			}
+			return Mono.empty();
+		});
+		return chain.filter(exchange).doFinally(signal -> release.run());
+	}
+
+	Priority classify(ServerHttpRequest request) {
+		PathContainer path = request.getPath().pathWithinApplication();
+		for (CompiledRule rule : rules) {
+			if ((rule.method() == null || rule.method().equals(request.getMethod())) && rule.pattern().matches(path)) {
+				return rule.priority();
+			}
+		}
+		return defaultPriority;
+	}
+
+	private static boolean isEventStream(MediaType contentType) {
+		return contentType != null && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType);
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	private record CompiledRule(PathPattern pattern, HttpMethod method, Priority priority) {
+	}
+}
@@ -0,0 +1,13 @@
+package com.example.gateway.limit;
+
+/**
+ * Admission class of a gateway request. Under load, {@link #SHEDDABLE} is rejected first and
+ * {@link #CRITICAL} last.
+ */
+public enum Priority {
+	/** Token refreshes, logins, single-item reads. */
+	CRITICAL,
+	NORMAL,
+	/** Expensive or bulk work (QR decode, list endpoints) that clients can retry later. */
+	SHEDDABLE
+}
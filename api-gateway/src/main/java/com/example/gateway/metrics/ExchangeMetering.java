@@ -0,0 +1,64 @@
+package com.example.gateway.metrics;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Wraps an exchange so body bytes are counted into its {@link ExchangeTimings} as they stream through.
+ */
+public final class ExchangeMetering {
+
+	private ExchangeMetering() {
+	}
+
+	public static ServerWebExchange meter(ServerWebExchange exchange, ExchangeTimings timings) {
+		exchange.getAttributes().put(ExchangeTimings.ATTRIBUTE, timings);
+		return exchange.mutate()
+				.request(new CountingRequest(exchange.getRequest(), timings))
+				.response(new CountingResponse(exchange.getResponse(), timings))
+				.build();
+	}
+
+	private static final class CountingRequest extends ServerHttpRequestDecorator {
+
+		private final ExchangeTimings timings;
+
+		CountingRequest(ServerHttpRequest delegate, ExchangeTimings timings) {
+			super(delegate);
+			this.timings = timings;
+		}
+
+		@Override
+		public Flux<DataBuffer> getBody() {
+			return super.getBody().doOnNext(buffer -> timings.addRequestBytes(buffer.readableByteCount()));
+		}
+	}
+
+	private static final class CountingResponse extends ServerHttpResponseDecorator {
+
+		private final ExchangeTimings timings;
+
+		CountingResponse(ServerHttpResponse delegate, ExchangeTimings timings) {
+			super(delegate);
+			this.timings = timings;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			return super.writeWith(Flux.from(body).doOnNext(buffer -> timings.addResponseBytes(buffer.readableByteCount())));
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return super.writeAndFlushWith(Flux.from(body).map(chunk ->
+					Flux.from(chunk).doOnNext(buffer -> timings.addResponseBytes(buffer.readableByteCount()))));
+		}
+	}
+}
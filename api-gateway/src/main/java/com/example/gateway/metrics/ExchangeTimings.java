@@ -0,0 +1,78 @@
+package com.example.gateway.metrics;
+
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-exchange timing and size counters, created by the audit web filter and filled in as the
+ * request moves through the gateway. Read once the response has been written.
+ */
+public final class ExchangeTimings {
+
+	public static final String ATTRIBUTE = ExchangeTimings.class.getName();
+
+	private final long startNanos = System.nanoTime();
+	private final AtomicLong requestBytes = new AtomicLong();
+	private final AtomicLong responseBytes = new AtomicLong();
+	private volatile long upstreamNanos = -1;
+
+	public static ExchangeTimings of(ServerWebExchange exchange) {
+		return exchange.getAttribute(ATTRIBUTE);
+	}
+
+	/**
+	 * @return {@code host:port} the request was routed to, or null if it never reached an upstream
+	 */
+	public static String resolvedInstance(ServerWebExchange exchange) {
+		ExchangeTimings timings = of(exchange);
+		if (timings == null || timings.getUpstreamNanos() < 0) {
+			return null;
+		}
+		URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+		if (url == null || url.getHost() == null) {
+			return null;
+		}
+		return url.getPort() >= 0 ? url.getHost() + ':' + url.getPort() : url.getHost();
+	}
+
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	public long elapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * @param nanos time from the upstream call starting until its response headers arrived
+	 */
+	public void upstreamCompleted(long nanos) {
+		this.upstreamNanos = nanos;
+	}
+
+	/**
+	 * @return upstream latency, or -1 when the request was answered without an upstream call
+	 */
+	public long getUpstreamNanos() {
+		return upstreamNanos;
+	}
+
+	void addRequestBytes(long bytes) {
+		requestBytes.addAndGet(bytes);
+	}
+
+	void addResponseBytes(long bytes) {
+		responseBytes.addAndGet(bytes);
+	}
+
+	public long getRequestBytes() {
+		return requestBytes.get();
+	}
+
+	public long getResponseBytes() {
+		return responseBytes.get();
+	}
+}
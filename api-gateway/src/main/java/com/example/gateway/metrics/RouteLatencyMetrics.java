@@ -0,0 +1,77 @@
+package com.example.gateway.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route latency and size distributions. Histogram buckets and SLO boundaries come from
+ * {@code management.metrics.distribution.*} for these meter names, so they can be tuned in config.
+ * <ul>
+ *     <li>{@code gateway.route.latency{route,status}} - gateway receive to response written</li>
+ *     <li>{@code gateway.route.upstream.latency{route,instance}} - upstream call until response headers</li>
+ *     <li>{@code gateway.route.request.size|response.size{route}} - body bytes</li>
+ * </ul>
+ */
+@Component
+public class RouteLatencyMetrics {
+
+	static final String NO_INSTANCE = "none";
+
+	private final MeterRegistry meterRegistry;
+	private final Map<MeterKey, Timer> totalTimers = new ConcurrentHashMap<>();
+	private final Map<MeterKey, Timer> upstreamTimers = new ConcurrentHashMap<>();
+	private final Map<String, RouteSizes> sizes = new ConcurrentHashMap<>();
+
+	public RouteLatencyMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	public void record(String routeId, String instance, int status, ExchangeTimings timings, long totalNanos) {
+		String route = routeId != null ? routeId : "unmatched";
+
+		totalTimers.computeIfAbsent(new MeterKey(route, status / 100 + "xx"), key -> Timer.builder("gateway.route.latency")
+				.description("Time from the gateway receiving a request until its response was written")
+				.tag("route", key.route())
+				.tag("status", key.second())
+				.register(meterRegistry)).record(totalNanos, TimeUnit.NANOSECONDS);
+
+		long upstreamNanos = timings.getUpstreamNanos();
+		if (upstreamNanos >= 0) {
+			upstreamTimers.computeIfAbsent(new MeterKey(route, instance != null ? instance : NO_INSTANCE), key -> Timer.builder("gateway.route.upstream.latency")
+					.description("Time from the upstream call starting until its response headers arrived")
+					.tag("route", key.route())
+					.tag("instance", key.second())
+					.register(meterRegistry)).record(upstreamNanos, TimeUnit.NANOSECONDS);
+		}
+
+		RouteSizes routeSizes = sizes.computeIfAbsent(route, this::newSizes);
+		routeSizes.request().record(timings.getRequestBytes());
+		routeSizes.response().record(timings.getResponseBytes());
+	}
+
+	private RouteSizes newSizes(String route) {
+		return new RouteSizes(
+				DistributionSummary.builder("gateway.route.request.size")
+						.description("Request body bytes received by the gateway")
+						.baseUnit("bytes")
+						.tag("route", route)
+						.register(meterRegistry),
+				DistributionSummary.builder("gateway.route.response.size")
+						.description("Response body bytes written by the gateway")
+						.baseUnit("bytes")
+						.tag("route", route)
+						.register(meterRegistry));
+	}
+
+	private record MeterKey(String route, String second) {
+	}
+
+	private record RouteSizes(DistributionSummary request, DistributionSummary response) {
+	}
+}
@@ -0,0 +1,34 @@
+package com.example.gateway.metrics;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times the upstream call. Runs after the load balancer has resolved the instance and wraps only the
+ * routing filter, which completes once the upstream response headers are in; the body is streamed to
+ * the client afterwards by {@code NettyWriteResponseFilter}, outside this measurement.
+ */
+@Component
+public class UpstreamTimingGlobalFilter implements GlobalFilter, Ordered {
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ExchangeTimings timings = ExchangeTimings.of(exchange);
+		if (timings == null) {
+			return chain.filter(exchange);
+		}
+		long start = System.nanoTime();
+		return chain.filter(exchange)
+				.doOnSuccess(done -> timings.upstreamCompleted(System.nanoTime() - start));
+	}
+
+	@Override
+	public int getOrder() {
+		return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+	}
+}
@@ -0,0 +1,266 @@
+package com.example.gateway.publisher;
+
+import com.example.common.event.EventEnvelope;
+import com.example.gateway.config.AuditProperties;
+import com.example.gateway.spool.AuditSpool;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves audit envelopes off the Netty event loop.
+ * Request threads only append to a bounded lock-free queue; a single drain thread
+ * collects up to {@code batchSize} envelopes (or whatever arrived within {@code linger})
+ * and hands them to the binder back-to-back so the Kafka producer can pack them into one request.
+ * Envelopes the binder refuses go to the local {@link AuditSpool} when one is configured; while the
+ * spool has a backlog new envelopes are appended behind it so replay preserves order.
+ */
+@Slf4j
+@Component
+public class AuditBatchDispatcher implements SmartLifecycle {
+
+	public static final String BINDING = "audit-out-0";
+
+	private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final StreamBridge streamBridge;
+	private final AuditProperties properties;
+	private final AuditSpool spool;
+	private final ObjectMapper objectMapper;
+
+	// ConcurrentLinkedQueue is unbounded, so capacity is enforced by reserving a slot in depth first
+	private final ConcurrentLinkedQueue<EventEnvelope<?>> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger depth = new AtomicInteger();
+
+	private final Counter enqueuedCounter;
+	private final Counter sentCounter;
+	private final Counter droppedCounter;
+	private final Counter failedCounter;
+
+	private volatile Thread drainThread;
+	private volatile boolean running;
+
+	public AuditBatchDispatcher(StreamBridge streamBridge,
+								AuditProperties properties,
+								ObjectProvider<AuditSpool> spoolProvider,
+								ObjectMapper objectMapper,
+								MeterRegistry meterRegistry) {
+		this.streamBridge = streamBridge;
+		this.properties = properties;
+		this.spool = spoolProvider.getIfAvailable();
+		this.objectMapper = objectMapper;
+
+		this.enqueuedCounter = Counter.builder("gateway.audit.enqueued")
+				.description("Audit envelopes accepted into the hand-off queue")
+				.register(meterRegistry);
+		this.sentCounter = Counter.builder("gateway.audit.sent")
+				.description("Audit envelopes accepted by the binder")
+				.register(meterRegistry);
+		this.droppedCounter = Counter.builder("gateway.audit.dropped")
+				.description("Audit envelopes rejected because the hand-off queue was full")
+				.register(meterRegistry);
+		this.failedCounter = Counter.builder("gateway.audit.failed")
+				.description("Audit envelopes the binder refused or threw on")
+				.register(meterRegistry);
+		Gauge.builder("gateway.audit.queue.depth", depth, AtomicInteger::get)
+				.description("Audit envelopes waiting for the drain thread")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Hands an envelope to the drain thread. Never performs I/O on the caller's thread.
+	 *
+	 * @return false when the envelope was dropped due to overflow
+	 */
+	public boolean offer(EventEnvelope<?> envelope) {
+		if (!reserveSlot()) {
+			droppedCounter.increment();
+			log.debug("Audit queue full, dropping envelope traceId={} policy={}",
+					envelope.getTraceId(), properties.getOverflowPolicy());
+			return false;
+		}
+
+		queue.offer(envelope);
+		enqueuedCounter.increment();
+
+		Thread t = drainThread;
+		if (t != null && depth.get() >= properties.getBatchSize()) {
+			LockSupport.unpark(t);
+		}
+		return true;
+	}
+
+	public int depth() {
+		return depth.get();
+	}
+
+	private boolean reserveSlot() {
+		if (tryReserve()) {
+			return true;
+		}
+		if (properties.getOverflowPolicy() != AuditProperties.OverflowPolicy.BLOCK) {
+			return false;
+		}
+
+		long deadline = System.nanoTime() + properties.getBlockTimeout().toNanos();
+		while (System.nanoTime() < deadline) {
+			LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+			if (tryReserve()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean tryReserve() {
+		int capacity = properties.getQueueCapacity();
+		while (true) {
+			int current = depth.get();
+			if (current >= capacity) {
+				return false;
+			}
+			if (depth.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	private void drainLoop() {
+		int batchSize = Math.max(1, properties.getBatchSize());
+		long lingerNanos = properties.getLinger().toNanos();
+		List<EventEnvelope<?>> batch = new ArrayList<>(batchSize);
+
+		log.info("Audit drain thread started (batchSize={}, linger={}, capacity={}, overflow={})",
+				batchSize, properties.getLinger(), properties.getQueueCapacity(), properties.getOverflowPolicy());
+
+		while (running || depth.get() > 0) {
+			if (drainTo(batch, batchSize) == 0) {
+				if (!running) {
+					break;
+				}
+				LockSupport.parkNanos(this, lingerNanos);
+				continue;
+			}
+
+			// wait up to linger for the batch to fill so sends go out in bursts
+			long deadline = System.nanoTime() + lingerNanos;
+			while (running && batch.size() < batchSize) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					break;
+				}
+				LockSupport.parkNanos(this, remaining);
+				drainTo(batch, batchSize - batch.size());
+			}
+
+			flush(batch);
+			batch.clear();
+		}
+
+		log.info("Audit drain thread stopped");
+	}
+
+	private int drainTo(List<EventEnvelope<?>> batch, int max) {
+		int n = 0;
+		EventEnvelope<?> next;
+		while (n < max && (next = queue.poll()) != null) {
+			batch.add(next);
+			n++;
+		}
+		if (n > 0) {
+			depth.addAndGet(-n);
+		}
+		return n;
+	}
+
+	private void flush(List<EventEnvelope<?>> batch) {
+		int ok = 0;
+		int spooled = 0;
+		for (EventEnvelope<?> envelope : batch) {
+			if (spool != null && spool.hasBacklog()) {
+				spooled += spool(envelope) ? 1 : 0;
+				continue;
+			}
+			try {
+				if (streamBridge.send(BINDING, envelope)) {
+					ok++;
+					continue;
+				}
+				failedCounter.increment();
+				log.warn("Failed to send audit event to binding {} traceId={}", BINDING, envelope.getTraceId());
+			} catch (RuntimeException ex) {
+				failedCounter.increment();
+				log.warn("Error sending audit event to binding {} traceId={}: {}", BINDING, envelope.getTraceId(), ex.getMessage());
+			}
+			spooled += spool(envelope) ? 1 : 0;
+		}
+		sentCounter.increment(ok);
+		log.debug("Audit batch flushed size={} sent={} spooled={} remainingDepth={}", batch.size(), ok, spooled, depth.get());
+	}
+
+	private boolean spool(EventEnvelope<?> envelope) {
+		if (spool == null) {
+			return false;
+		}
+		try {
+			return spool.append(objectMapper.writeValueAsBytes(envelope));
+		} catch (JsonProcessingException ex) {
+			log.warn("Cannot serialize audit envelope for spooling traceId={}: {}", envelope.getTraceId(), ex.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public void start() {
+		running = true;
+		Thread t = new Thread(this::drainLoop, "audit-drain");
+		t.setDaemon(true);
+		drainThread = t;
+		t.start();
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		Thread t = drainThread;
+		if (t == null) {
+			return;
+		}
+		LockSupport.unpark(t);
+		try {
+			t.join(properties.getShutdownTimeout().toMillis());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		if (t.isAlive()) {
+			log.warn("Audit drain thread did not finish within {}; {} envelopes left unsent",
+					properties.getShutdownTimeout(), depth.get());
+		}
+		drainThread = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	// stop after the web server has stopped accepting requests, but before output bindings go away
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 4096;
+	}
+}
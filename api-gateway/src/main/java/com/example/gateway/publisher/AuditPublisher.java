@@ -1,28 +1,80 @@
 package com.example.gateway.publisher;
 
 import com.example.common.event.EventEnvelope;
+import com.example.gateway.config.AuditProperties;
 import com.example.gateway.event.AuditEvent;
+import com.example.gateway.metrics.ExchangeTimings;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ServerWebExchange;
 
 import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class AuditPublisher {
 
-	private final StreamBridge streamBridge;
+	private final AuditBatchDispatcher dispatcher;
+	private final AuditRollupAggregator rollupAggregator;
+	private final AuditProperties.Rollup rollup;
 
-	public AuditPublisher(StreamBridge streamBridge) {
-		this.streamBridge = streamBridge;
+	public AuditPublisher(AuditBatchDispatcher dispatcher,
+						  AuditRollupAggregator rollupAggregator,
+						  AuditProperties properties) {
+		this.dispatcher = dispatcher;
+		this.rollupAggregator = rollupAggregator;
+		this.rollup = properties.getRollup();
+	}
+
+	public void publish(ServerWebExchange exchange,
+						int responseStatusCode,
+						String traceId) {
+
+		ServerHttpRequest request = exchange.getRequest();
+		Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		String routeId = route != null ? route.getId() : null;
+
+		if (rollupAggregator.isEnabled() && responseStatusCode < rollup.getIndividualMinStatus()) {
+			String method = request.getMethod() != null ? request.getMethod().name() : null;
+			rollupAggregator.record(routeId, method, responseStatusCode, System.currentTimeMillis());
+
+			// keep a small sample of successes as individual events for spot checks
+			if (ThreadLocalRandom.current().nextDouble() >= rollup.getSuccessSampleRate()) {
+				return;
+			}
+		}
+
+		AuditEvent.AuditEventBuilder event = AuditEvent.builder()
+				.routeId(routeId)
+				.instance(ExchangeTimings.resolvedInstance(exchange));
+		ExchangeTimings timings = ExchangeTimings.of(exchange);
+		if (timings != null) {
+			long upstreamNanos = timings.getUpstreamNanos();
+			event.totalLatencyMicros(TimeUnit.NANOSECONDS.toMicros(timings.elapsedNanos()))
+					.upstreamLatencyMicros(upstreamNanos >= 0 ? TimeUnit.NANOSECONDS.toMicros(upstreamNanos) : null)
+					.requestBytes(timings.getRequestBytes())
+					.responseBytes(timings.getResponseBytes());
+		}
+
+		publish(request, responseStatusCode, traceId, event);
 	}
 
 	public void publish(ServerHttpRequest request,
 						int responseStatusCode,
 						String traceId) {
+		publish(request, responseStatusCode, traceId, AuditEvent.builder());
+	}
+
+	private void publish(ServerHttpRequest request,
+						 int responseStatusCode,
+						 String traceId,
+						 AuditEvent.AuditEventBuilder builder) {
 
 		HttpStatus resolved = HttpStatus.resolve(responseStatusCode);
 		String statusForLog = (resolved != null) ? resolved.toString() : String.valueOf(responseStatusCode);
@@ -32,7 +84,7 @@ public class AuditPublisher {
 
 		log.debug("Preparing audit event traceId={}, method={}, path={}, status={}", traceId, method, path, statusForLog);
 
-		AuditEvent event = AuditEvent.builder()
+		AuditEvent event = builder
 				.path(path)
 				.method(method)
 				.statusCode(responseStatusCode)
@@ -48,11 +100,9 @@ public class AuditPublisher {
 				traceId             // traceId
 		);
 
-		boolean sent = streamBridge.send("audit-out-0", envelope);
-		if (sent) {
-			log.debug("Audit event sent to binding audit-out-0 traceId={} status={}", traceId, statusForLog);
-		} else {
-			log.warn("Failed to send audit event to binding audit-out-0 traceId={} status={}", traceId, statusForLog);
+		// the actual binder send happens on the audit drain thread, never on the event loop
+		if (dispatcher.offer(envelope)) {
+			log.debug("Audit event queued for binding audit-out-0 traceId={} status={}", traceId, statusForLog);
 		}
 	}
 }
@@ -0,0 +1,212 @@
+package com.example.gateway.publisher;
+
+import com.example.common.event.EventEnvelope;
+import com.example.gateway.config.AuditProperties;
+import com.example.gateway.event.AuditRollupEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Roll-up audit mode: instead of one record per request, count requests per
+ * (route, method, status class, time bucket) in striped {@link LongAdder}s and emit
+ * a single {@code AUDIT_HTTP_ROLLUP} envelope per closed bucket.
+ * <p>
+ * Each bucket is summarized exactly once. A request recorded for a bucket that has already gone out is
+ * counted in the oldest open bucket instead. Counters are drained with {@link LongAdder#sumThenReset()}
+ * and stay in the map until a later flush finds them empty, so an increment racing a flush is reported
+ * with the next summary rather than lost.
+ */
+@Slf4j
+@Component
+public class AuditRollupAggregator implements SmartLifecycle {
+
+	private final AuditBatchDispatcher dispatcher;
+	private final AuditProperties.Rollup properties;
+	private final long bucketMillis;
+
+	private final ConcurrentHashMap<RollupKey, LongAdder> counters = new ConcurrentHashMap<>();
+
+	// newest bucket already summarized, written only by the flush
+	private volatile long emittedThrough = -1;
+
+	private final Counter recordedCounter;
+	private final Counter summariesCounter;
+
+	private ScheduledExecutorService flusher;
+	private volatile boolean running;
+
+	public AuditRollupAggregator(AuditBatchDispatcher dispatcher,
+								 AuditProperties properties,
+								 MeterRegistry meterRegistry) {
+		this.dispatcher = dispatcher;
+		this.properties = properties.getRollup();
+		this.bucketMillis = Math.max(1000L, this.properties.getBucket().toMillis());
+
+		this.recordedCounter = Counter.builder("gateway.audit.rollup.recorded")
+				.description("Requests folded into roll-up counters instead of individual audit events")
+				.register(meterRegistry);
+		this.summariesCounter = Counter.builder("gateway.audit.rollup.summaries")
+				.description("Roll-up summary envelopes emitted")
+				.register(meterRegistry);
+	}
+
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	public void record(String routeId, String method, int statusCode, long timestampMillis) {
+		RollupKey key = new RollupKey(
+				Math.max(timestampMillis / bucketMillis, emittedThrough + 1),
+				routeId != null ? routeId : "unmatched",
+				method != null ? method : "UNKNOWN",
+				statusCode / 100);
+
+		counters.computeIfAbsent(key, k -> new LongAdder()).increment();
+		recordedCounter.increment();
+	}
+
+	/**
+	 * Emits every bucket strictly older than the current one that has not gone out yet.
+	 * With {@code force} the current bucket is emitted too (used on shutdown).
+	 */
+	synchronized void flush(boolean force) {
+		long currentBucket = System.currentTimeMillis() / bucketMillis;
+		long closeThrough = force ? currentBucket : currentBucket - 1;
+		long previous = emittedThrough;
+		if (closeThrough <= previous) {
+			return;
+		}
+		// from here on new records land after closeThrough
+		emittedThrough = closeThrough;
+
+		// bucket -> counts, ordered so summaries go out oldest first
+		Map<Long, Map<RollupKey, Long>> closed = new TreeMap<>();
+
+		Iterator<Map.Entry<RollupKey, LongAdder>> it = counters.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<RollupKey, LongAdder> e = it.next();
+			RollupKey key = e.getKey();
+			if (key.bucket() > closeThrough) {
+				continue;
+			}
+
+			long count = e.getValue().sumThenReset();
+			if (count == 0) {
+				// summarized by an earlier flush and quiet since; a recorder still holding it is long gone
+				if (key.bucket() <= previous) {
+					it.remove();
+				}
+				continue;
+			}
+			// increments that raced the flush which summarized their bucket go out with the oldest new one
+			long bucket = Math.max(key.bucket(), previous + 1);
+			closed.computeIfAbsent(bucket, b -> new HashMap<>())
+					.merge(new RollupKey(bucket, key.routeId(), key.method(), key.statusClass()), count, Long::sum);
+		}
+
+		closed.forEach(this::emit);
+	}
+
+	private void emit(long bucket, Map<RollupKey, Long> counts) {
+		long total = 0;
+		List<AuditRollupEvent.Entry> entries = new ArrayList<>(counts.size());
+		for (Map.Entry<RollupKey, Long> e : counts.entrySet()) {
+			RollupKey key = e.getKey();
+			entries.add(AuditRollupEvent.Entry.builder()
+					.routeId(key.routeId())
+					.method(key.method())
+					.statusClass(key.statusClass() + "xx")
+					.count(e.getValue())
+					.build());
+			total += e.getValue();
+		}
+
+		AuditRollupEvent event = AuditRollupEvent.builder()
+				.bucketStart(Instant.ofEpochMilli(bucket * bucketMillis))
+				.bucketEnd(Instant.ofEpochMilli((bucket + 1) * bucketMillis))
+				.total(total)
+				.entries(entries)
+				.build();
+
+		EventEnvelope<AuditRollupEvent> envelope = EventEnvelope.success(
+				"AUDIT_HTTP_ROLLUP",  // eventName
+				"GATEWAY",            // aggregateType
+				null,                 // aggregateId
+				event,                // payload
+				"api-gateway",        // sourceService
+				null                  // traceId (summaries span many traces)
+		);
+
+		if (dispatcher.offer(envelope)) {
+			summariesCounter.increment();
+		}
+		log.debug("Audit roll-up emitted bucketStart={} keys={} total={}", event.getBucketStart(), entries.size(), total);
+	}
+
+	private void safeFlush() {
+		try {
+			flush(false);
+		} catch (RuntimeException ex) {
+			log.warn("Audit roll-up flush failed: {}", ex.getMessage(), ex);
+		}
+	}
+
+	@Override
+	public void start() {
+		running = true;
+		if (!properties.isEnabled()) {
+			return;
+		}
+		flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "audit-rollup");
+			t.setDaemon(true);
+			return t;
+		});
+		// tick a few times per bucket so a closed bucket goes out shortly after it ends
+		long period = Math.max(250L, bucketMillis / 4);
+		flusher.scheduleAtFixedRate(this::safeFlush, period, period, TimeUnit.MILLISECONDS);
+		log.info("Audit roll-up enabled (bucket={}ms, successSampleRate={}, individualMinStatus={})",
+				bucketMillis, properties.getSuccessSampleRate(), properties.getIndividualMinStatus());
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		if (flusher == null) {
+			return;
+		}
+		flusher.shutdownNow();
+		flusher = null;
+		flush(true);
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	// must stop (and emit its last bucket) before the dispatcher drains and stops
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 2560;
+	}
+
+	private record RollupKey(long bucket, String routeId, String method, int statusClass) {
+	}
+}
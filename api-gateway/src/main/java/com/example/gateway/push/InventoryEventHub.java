@@ -0,0 +1,124 @@
+package com.example.gateway.push;
+
+import com.example.gateway.config.PushProperties;
+import com.example.gateway.event.InventoryEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans inventory change events out to push subscribers, indexed by owner so an event only touches the
+ * streams that asked for it. Each subscriber gets its own bounded queue; a subscriber whose queue is full
+ * is disconnected with {@link SlowConsumerException} instead of buffering without limit or stalling the
+ * Kafka consumer for everyone else.
+ * <p>
+ * {@link #publish} is called from the binder's single consumer thread, which keeps emission into each
+ * unicast sink serialized.
+ */
+@Slf4j
+@Component
+public class InventoryEventHub {
+
+	private final Map<Long, Set<Subscriber>> byOwner = new ConcurrentHashMap<>();
+	private final AtomicInteger subscriberCount = new AtomicInteger();
+	private final int bufferSize;
+
+	private final Counter deliveredCounter;
+	private final Counter slowConsumerCounter;
+
+	public InventoryEventHub(PushProperties properties, MeterRegistry meterRegistry) {
+		this.bufferSize = properties.getBufferSize();
+
+		this.deliveredCounter = Counter.builder("gateway.push.events")
+				.description("Inventory events queued to push subscribers")
+				.register(meterRegistry);
+		this.slowConsumerCounter = Counter.builder("gateway.push.disconnects")
+				.description("Push subscribers disconnected because their buffer was full")
+				.tag("reason", "slow-consumer")
+				.register(meterRegistry);
+		Gauge.builder("gateway.push.subscribers", subscriberCount, AtomicInteger::get)
+				.description("Open inventory push streams")
+				.register(meterRegistry);
+	}
+
+	public Flux<InventoryEvent> subscribe(Long ownerUserId) {
+		return Flux.defer(() -> {
+			Subscriber subscriber = new Subscriber(ownerUserId,
+					Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(bufferSize)));
+			// add under the map's lock so a concurrent remove cannot drop a set we are about to join
+			byOwner.compute(ownerUserId, (id, set) -> {
+				Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+				target.add(subscriber);
+				return target;
+			});
+			subscriberCount.incrementAndGet();
+			return subscriber.sink().asFlux().doFinally(signal -> remove(subscriber));
+		});
+	}
+
+	public void publish(InventoryEvent event) {
+		if (event.getOwnerUserId() == null) {
+			return;
+		}
+		Set<Subscriber> subscribers = byOwner.get(event.getOwnerUserId());
+		if (subscribers == null) {
+			return;
+		}
+		for (Subscriber subscriber : subscribers) {
+			Sinks.EmitResult result = subscriber.sink().tryEmitNext(event);
+			if (result.isSuccess()) {
+				deliveredCounter.increment();
+			} else if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+				slowConsumerCounter.increment();
+				log.debug("Disconnecting slow push subscriber owner={} (buffer {} full)", subscriber.ownerUserId(), bufferSize);
+				subscriber.sink().tryEmitError(new SlowConsumerException());
+				remove(subscriber);
+			} else {
+				// cancelled or already terminated; doFinally may not have run yet
+				remove(subscriber);
+			}
+		}
+	}
+
+	private void remove(Subscriber subscriber) {
+		boolean[] removed = {false};
+		byOwner.computeIfPresent(subscriber.ownerUserId(), (id, set) -> {
+			removed[0] = set.remove(subscriber);
+			return set.isEmpty() ? null : set;
+		});
+		if (removed[0]) {
+			subscriberCount.decrementAndGet();
+		}
+	}
+
+	private record Subscriber(Long ownerUserId, Sinks.Many<InventoryEvent> sink) {
+
+		// identity semantics: two streams for the same owner are different subscribers
+		@Override
+		public boolean equals(Object other) {
+			return this == other;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this);
+		}
+	}
+
+	public static final class SlowConsumerException extends RuntimeException {
+
+		SlowConsumerException() {
+			super("push subscriber fell behind", null, false, false);
+		}
+	}
+}
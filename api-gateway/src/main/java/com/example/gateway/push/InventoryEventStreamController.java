@@ -0,0 +1,142 @@
+package com.example.gateway.push;
+
+import com.example.common.trace.TraceContext;
+import com.example.commonlib.security.autoconfigure.SecuritySharedProperties;
+import com.example.gateway.config.PushProperties;
+import com.example.gateway.event.InventoryEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Server-sent events for a user's inventory, replacing polling of {@code GET /api/inventory/user/{userId}}.
+ * Events are pushed as they arrive on {@code inventory-events-out-0}. A stream that falls behind ends with
+ * a {@code disconnect} event; clients should re-fetch the list once and reconnect.
+ * <p>
+ * Only the profile's owner may subscribe: the profile is fetched from user-service and its email must match
+ * the token's subject. Admins may watch any user. Everyone else gets 403 before the stream opens, an unknown
+ * profile gets 404, and a lookup that times out or fails in user-service gets 503 with {@code Retry-After}.
+ */
+@Slf4j
+@RestController
+public class InventoryEventStreamController {
+
+	private final InventoryEventHub hub;
+	private final PushProperties properties;
+	private final WebClient webClient;
+	private final String adminAuthority;
+	// headers user-service needs to authorize and correlate the owner lookup
+	private final List<String> forwardedHeaders;
+
+	public InventoryEventStreamController(InventoryEventHub hub,
+										  PushProperties properties,
+										  WebClient.Builder webClientBuilder,
+										  ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+										  SecuritySharedProperties securityProperties) {
+		this.hub = hub;
+		this.properties = properties;
+		this.webClient = webClientBuilder.clone().filter(loadBalancerFunction).build();
+		this.adminAuthority = securityProperties.getRolePrefix() + "ADMIN";
+		this.forwardedHeaders = List.of(
+				HttpHeaders.AUTHORIZATION, TraceContext.TRACEPARENT, TraceContext.TRACE_ID_HEADER,
+				securityProperties.getInternalIdentity().getHeaderName());
+	}
+
+	@GetMapping(path = "/api/events/inventory/user/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<Object>> inventoryEvents(@PathVariable Long userId,
+														 Authentication authentication,
+														 ServerHttpRequest request,
+														 ServerHttpResponse response) {
+		return authorize(userId, authentication, request, response).thenMany(Flux.defer(() -> stream(userId)));
+	}
+
+	private Mono<Void> authorize(Long userId, Authentication authentication,
+								 ServerHttpRequest request, ServerHttpResponse response) {
+		if (authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).anyMatch(adminAuthority::equals)) {
+			return Mono.empty();
+		}
+		return webClient.get()
+				.uri("lb://user-service/api/users/{id}", userId)
+				.headers(headers -> forwardedHeaders.forEach(name -> {
+					String value = request.getHeaders().getFirst(name);
+					if (value != null) {
+						headers.set(name, value);
+					}
+				}))
+				.exchangeToMono(lookup -> {
+					if (lookup.statusCode().is2xxSuccessful()) {
+						return lookup.bodyToMono(JsonNode.class);
+					}
+					if (lookup.statusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+						return lookup.releaseBody().then(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No such user")));
+					}
+					if (lookup.statusCode().is5xxServerError()) {
+						return lookup.releaseBody().then(Mono.error(() -> ownerLookupUnavailable(userId, response, "status " + lookup.statusCode().value())));
+					}
+					return lookup.releaseBody().then(Mono.empty());
+				})
+				.timeout(properties.getOwnerLookupTimeout())
+				.onErrorMap(ex -> ex instanceof TimeoutException || ex instanceof WebClientRequestException,
+						ex -> ownerLookupUnavailable(userId, response, ex.toString()))
+				.filter(profile -> authentication.getName().equalsIgnoreCase(profile.path("email").asText()))
+				.switchIfEmpty(Mono.error(() -> {
+					log.debug("Inventory stream for user {} refused to {}", userId, authentication.getName());
+					return new ResponseStatusException(HttpStatus.FORBIDDEN);
+				}))
+				.then();
+	}
+
+	// Retry-After goes on the response itself: the error handler renders the status but not the exception's headers
+	private static ResponseStatusException ownerLookupUnavailable(Long userId, ServerHttpResponse response, String cause) {
+		log.debug("Owner lookup for inventory stream of user {} failed: {}", userId, cause);
+		response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+		return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Owner lookup unavailable");
+	}
+
+	private Flux<ServerSentEvent<Object>> stream(Long userId) {
+		Sinks.Empty<Void> closed = Sinks.empty();
+
+		Flux<ServerSentEvent<Object>> events = hub.subscribe(userId)
+				.map(InventoryEventStreamController::toSse)
+				.onErrorResume(InventoryEventHub.SlowConsumerException.class, ex -> Flux.just(ServerSentEvent.builder()
+						.event("disconnect")
+						.data((Object) Map.of("reason", "slow-consumer"))
+						.build()))
+				.doFinally(signal -> closed.tryEmitEmpty());
+
+		Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(properties.getHeartbeat())
+				.map(tick -> ServerSentEvent.builder().comment("keepalive").build())
+				.takeUntilOther(closed.asMono());
+
+		return Flux.merge(events, heartbeats);
+	}
+
+	private static ServerSentEvent<Object> toSse(InventoryEvent event) {
+		return ServerSentEvent.builder()
+				.id(event.getEventId())
+				.event(event.getEventType())
+				.data((Object) event)
+				.build();
+	}
+}
@@ -0,0 +1,269 @@
+package com.example.gateway.spool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local spool of serialized audit envelopes, made of fixed-size memory-mapped segments.
+ * <p>
+ * Segment layout: an 8 byte header holding the committed read offset, followed by records of
+ * {@code [int length][length bytes]}. A zero length marks the end of written data, so a segment
+ * can be re-opened after a restart without a separate index. Fully consumed segments are deleted.
+ * <p>
+ * Single writer (audit drain thread) and single reader (replayer); all access is serialized on this instance.
+ */
+@Slf4j
+public class AuditSpool implements MeterBinder, Closeable {
+
+	private static final int HEADER_BYTES = Long.BYTES;
+	private static final int LENGTH_BYTES = Integer.BYTES;
+	private static final String SEGMENT_SUFFIX = ".seg";
+
+	private final Path directory;
+	private final int segmentBytes;
+	private final int maxSegments;
+
+	// oldest first; the last one is the write segment
+	private final Deque<Segment> segments = new ArrayDeque<>();
+	private long nextSequence;
+
+	private final AtomicLong pendingRecords = new AtomicLong();
+	private Counter appendedCounter;
+	private Counter rejectedCounter;
+
+	public AuditSpool(Path directory, int segmentBytes, long maxBytes) {
+		if (segmentBytes <= HEADER_BYTES + LENGTH_BYTES) {
+			throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+		}
+		this.directory = directory;
+		this.segmentBytes = segmentBytes;
+		this.maxSegments = (int) Math.max(1, maxBytes / segmentBytes);
+		recover();
+	}
+
+	/**
+	 * @return false when the record does not fit in a segment or the spool is at its size cap
+	 */
+	public synchronized boolean append(byte[] record) {
+		int needed = LENGTH_BYTES + record.length;
+		if (needed > segmentBytes - HEADER_BYTES) {
+			reject("record larger than a segment (" + record.length + " bytes)");
+			return false;
+		}
+
+		Segment tail = segments.peekLast();
+		if (tail == null || tail.writePos + needed > segmentBytes) {
+			if (segments.size() >= maxSegments) {
+				reject("spool full (" + maxSegments + " segments)");
+				return false;
+			}
+			if (tail != null) {
+				tail.buffer.force();
+			}
+			tail = openSegment(nextSequence++, true);
+			segments.addLast(tail);
+		}
+
+		// payload before length: a torn write leaves length 0, which reads as end-of-data
+		tail.buffer.put(tail.writePos + LENGTH_BYTES, record);
+		tail.buffer.putInt(tail.writePos, record.length);
+		tail.writePos += needed;
+
+		pendingRecords.incrementAndGet();
+		if (appendedCounter != null) {
+			appendedCounter.increment();
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the oldest unconsumed record without removing it, or null when the spool is empty.
+	 */
+	public synchronized byte[] peek() {
+		Segment head = headWithData();
+		if (head == null) {
+			return null;
+		}
+		int length = head.buffer.getInt(head.readPos);
+		byte[] record = new byte[length];
+		head.buffer.get(head.readPos + LENGTH_BYTES, record);
+		return record;
+	}
+
+	/**
+	 * Marks the record last returned by {@link #peek()} as delivered.
+	 */
+	public synchronized void commit() {
+		Segment head = headWithData();
+		if (head == null) {
+			return;
+		}
+		int length = head.buffer.getInt(head.readPos);
+		head.readPos += LENGTH_BYTES + length;
+		head.buffer.putLong(0, head.readPos);
+		pendingRecords.decrementAndGet();
+	}
+
+	public boolean hasBacklog() {
+		return pendingRecords.get() > 0;
+	}
+
+	public long pendingRecords() {
+		return pendingRecords.get();
+	}
+
+	public synchronized long sizeBytes() {
+		return (long) segments.size() * segmentBytes;
+	}
+
+	private Segment headWithData() {
+		while (true) {
+			Segment head = segments.peekFirst();
+			if (head == null) {
+				return null;
+			}
+			if (head.readPos < head.writePos) {
+				return head;
+			}
+			if (head == segments.peekLast()) {
+				return null;
+			}
+			// fully replayed and no longer written to
+			segments.pollFirst();
+			head.delete();
+		}
+	}
+
+	private void recover() {
+		try {
+			Files.createDirectories(directory);
+			List<Path> files;
+			try (Stream<Path> s = Files.list(directory)) {
+				files = new ArrayList<>(s.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList());
+			}
+			for (Path file : files) {
+				long seq = Long.parseLong(file.getFileName().toString().replace(SEGMENT_SUFFIX, ""));
+				Segment segment = openSegment(seq, false);
+				pendingRecords.addAndGet(segment.scan());
+				segments.addLast(segment);
+				nextSequence = Math.max(nextSequence, seq + 1);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Cannot open audit spool at " + directory, ex);
+		}
+		if (!segments.isEmpty()) {
+			log.info("Recovered audit spool dir={} segments={} pendingRecords={}", directory, segments.size(), pendingRecords.get());
+		}
+	}
+
+	private Segment openSegment(long seq, boolean fresh) {
+		Path path = directory.resolve(String.format("%020d%s", seq, SEGMENT_SUFFIX));
+		try (FileChannel channel = FileChannel.open(path,
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// the mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+			Segment segment = new Segment(path, buffer);
+			if (fresh) {
+				buffer.putLong(0, HEADER_BYTES);
+				segment.readPos = HEADER_BYTES;
+				segment.writePos = HEADER_BYTES;
+				log.debug("Opened audit spool segment {}", path.getFileName());
+			}
+			return segment;
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Cannot map audit spool segment " + path, ex);
+		}
+	}
+
+	private void reject(String reason) {
+		if (rejectedCounter != null) {
+			rejectedCounter.increment();
+		}
+		log.warn("Audit spool rejected record: {}", reason);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("gateway.audit.spool.depth", pendingRecords, AtomicLong::get)
+				.description("Audit records waiting in the local spool")
+				.register(registry);
+		Gauge.builder("gateway.audit.spool.size", this, AuditSpool::sizeBytes)
+				.description("Bytes reserved by spool segments on disk")
+				.baseUnit("bytes")
+				.register(registry);
+		appendedCounter = Counter.builder("gateway.audit.spool.appended")
+				.description("Audit records written to the local spool")
+				.register(registry);
+		rejectedCounter = Counter.builder("gateway.audit.spool.rejected")
+				.description("Audit records lost because the spool was full")
+				.register(registry);
+	}
+
+	@Override
+	public synchronized void close() {
+		for (Segment segment : segments) {
+			segment.buffer.force();
+		}
+	}
+
+	private final class Segment {
+
+		private final Path path;
+		private final MappedByteBuffer buffer;
+		private int readPos;
+		private int writePos;
+
+		private Segment(Path path, MappedByteBuffer buffer) {
+			this.path = path;
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Restores read/write positions of an existing segment and returns the number of unread records.
+		 */
+		private long scan() {
+			long committed = buffer.getLong(0);
+			readPos = (int) Math.max(HEADER_BYTES, Math.min(committed, segmentBytes));
+
+			long unread = 0;
+			int pos = readPos;
+			while (pos + LENGTH_BYTES <= segmentBytes) {
+				int length = buffer.getInt(pos);
+				if (length <= 0 || pos + LENGTH_BYTES + length > segmentBytes) {
+					break;
+				}
+				pos += LENGTH_BYTES + length;
+				unread++;
+			}
+			writePos = pos;
+			return unread;
+		}
+
+		private void delete() {
+			try {
+				Files.deleteIfExists(path);
+				log.debug("Deleted replayed audit spool segment {}", path.getFileName());
+			} catch (IOException ex) {
+				log.warn("Could not delete audit spool segment {}: {}", path, ex.getMessage());
+			}
+		}
+	}
+}
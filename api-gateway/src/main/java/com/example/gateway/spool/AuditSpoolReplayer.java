@@ -0,0 +1,147 @@
+package com.example.gateway.spool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Drains {@link AuditSpool} in order on a background thread.
+ * A record is committed only after {@code sender} accepts it; on refusal the replayer backs off
+ * exponentially, so a dead broker is probed rather than hammered.
+ * The sender is a plain predicate so the replayer can run against a stubbed binder.
+ */
+@Slf4j
+public class AuditSpoolReplayer implements SmartLifecycle, MeterBinder {
+
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+	private final AuditSpool spool;
+	private final Predicate<byte[]> sender;
+	private final Duration initialBackoff;
+	private final Duration maxBackoff;
+
+	private Counter replayedCounter;
+	private Counter replayFailuresCounter;
+
+	private volatile Thread replayThread;
+	private volatile boolean running;
+
+	public AuditSpoolReplayer(AuditSpool spool,
+							  Predicate<byte[]> sender,
+							  Duration initialBackoff,
+							  Duration maxBackoff) {
+		this.spool = spool;
+		this.sender = sender;
+		this.initialBackoff = initialBackoff;
+		this.maxBackoff = maxBackoff;
+	}
+
+	/**
+	 * Sends as many spooled records as the sender accepts.
+	 *
+	 * @return number of records replayed before the spool emptied or the sender refused
+	 */
+	public int replayAvailable() {
+		int replayed = 0;
+		byte[] record;
+		while ((record = spool.peek()) != null) {
+			boolean ok;
+			try {
+				ok = sender.test(record);
+			} catch (RuntimeException ex) {
+				log.debug("Audit spool replay send threw: {}", ex.getMessage());
+				ok = false;
+			}
+			if (!ok) {
+				if (replayFailuresCounter != null) {
+					replayFailuresCounter.increment();
+				}
+				break;
+			}
+			spool.commit();
+			replayed++;
+			if (replayedCounter != null) {
+				replayedCounter.increment();
+			}
+		}
+		return replayed;
+	}
+
+	private void replayLoop() {
+		long backoffNanos = initialBackoff.toNanos();
+		while (running) {
+			if (!spool.hasBacklog()) {
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				continue;
+			}
+
+			int replayed = replayAvailable();
+			if (!spool.hasBacklog()) {
+				if (replayed > 0) {
+					log.info("Audit spool drained ({} records replayed in last pass)", replayed);
+				}
+				backoffNanos = initialBackoff.toNanos();
+				continue;
+			}
+
+			log.debug("Audit spool replay paused, backlog={} backoff={}ms",
+					spool.pendingRecords(), TimeUnit.NANOSECONDS.toMillis(backoffNanos));
+			LockSupport.parkNanos(this, backoffNanos);
+			backoffNanos = Math.min(backoffNanos * 2, maxBackoff.toNanos());
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		replayedCounter = Counter.builder("gateway.audit.spool.replayed")
+				.description("Spooled audit records delivered to the binder")
+				.register(registry);
+		replayFailuresCounter = Counter.builder("gateway.audit.spool.replay.failures")
+				.description("Replay attempts refused by the binder")
+				.register(registry);
+	}
+
+	@Override
+	public void start() {
+		running = true;
+		Thread t = new Thread(this::replayLoop, "audit-spool-replay");
+		t.setDaemon(true);
+		replayThread = t;
+		t.start();
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		Thread t = replayThread;
+		if (t == null) {
+			return;
+		}
+		LockSupport.unpark(t);
+		try {
+			t.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		replayThread = null;
+		spool.close();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	// after the audit dispatcher has flushed its last batch, before output bindings go away
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 5120;
+	}
+}
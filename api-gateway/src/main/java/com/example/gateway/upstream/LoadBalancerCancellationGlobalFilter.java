@@ -0,0 +1,71 @@
+package com.example.gateway.upstream;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Reports a load-balanced call that was cancelled before it completed (client gone, hedge won, timeout)
+ * to the load-balancer lifecycle as {@code DISCARD}. {@code ReactiveLoadBalancerClientFilter} only
+ * reports success and failure, so without this the instance's in-flight count would never come back down.
+ */
+@Component
+public class LoadBalancerCancellationGlobalFilter implements GlobalFilter, Ordered {
+
+	private final LoadBalancerClientFactory clientFactory;
+
+	public LoadBalancerCancellationGlobalFilter(LoadBalancerClientFactory clientFactory) {
+		this.clientFactory = clientFactory;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		return chain.filter(exchange).doOnCancel(() -> discard(exchange));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void discard(ServerWebExchange exchange) {
+		Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		Response<ServiceInstance> lbResponse = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+		if (route == null || lbResponse == null || !lbResponse.hasServer()) {
+			return;
+		}
+		Request<RequestDataContext> lbRequest =
+				new DefaultRequest<>(new RequestDataContext(new RequestData(exchange.getRequest()), "default"));
+		CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context =
+				new CompletionContext<>(CompletionContext.Status.DISCARD, lbRequest, lbResponse);
+		lifecycles(route.getUri().getHost()).forEach(lifecycle -> lifecycle.onComplete(context));
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Set<LoadBalancerLifecycle> lifecycles(String serviceId) {
+		return LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+				clientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+				RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+	}
+
+	// directly behind the load balancer, so it sees exactly the calls that were assigned an instance
+	@Override
+	public int getOrder() {
+		return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.gateway.upstream;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Gateway's routing filter, sending {@code lb://} routes through the target service's own pool from
+ * {@link UpstreamConnectionPools}. Other routes keep the shared client. Replaces the default
+ * {@code routingFilter} (disabled in config via {@code global-filter.netty-routing.enabled=false}).
+ */
+public class PooledNettyRoutingFilter extends NettyRoutingFilter {
+
+	private final UpstreamConnectionPools pools;
+
+	public PooledNettyRoutingFilter(HttpClient httpClient,
+									ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+									HttpClientProperties properties,
+									UpstreamConnectionPools pools) {
+		super(httpClient, headersFiltersProvider, properties);
+		this.pools = pools;
+	}
+
+	@Override
+	protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+		URI routeUri = route.getUri();
+		if (!"lb".equals(routeUri.getScheme()) || routeUri.getHost() == null) {
+			return super.getHttpClient(route, exchange);
+		}
+		HttpClient client = pools.httpClient(routeUri.getHost());
+		Object connectTimeout = route.getMetadata().get(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR);
+		if (connectTimeout != null) {
+			client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Integer.parseInt(connectTimeout.toString()));
+		}
+		return client;
+	}
+}
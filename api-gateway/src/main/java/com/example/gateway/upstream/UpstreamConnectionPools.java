@@ -0,0 +1,96 @@
+package com.example.gateway.upstream;
+
+import com.example.gateway.config.UpstreamPoolProperties;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One Reactor Netty connection pool per downstream service instead of the gateway's single shared
+ * pool, so limits and protocol can be set per service and one service cannot exhaust another's
+ * connections. Pools are named {@code upstream-<service>} and publish Reactor Netty's pool meters
+ * ({@code reactor.netty.connection.provider.*}: active and pending connections, acquire time) under that name.
+ */
+@Slf4j
+public class UpstreamConnectionPools implements DisposableBean {
+
+	private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+	private final UpstreamPoolProperties properties;
+	private final HttpClientProperties httpClientProperties;
+	private final HttpClient sharedClient;
+
+	public UpstreamConnectionPools(UpstreamPoolProperties properties,
+								   HttpClientProperties httpClientProperties,
+								   HttpClient sharedClient) {
+		this.properties = properties;
+		this.httpClientProperties = httpClientProperties;
+		this.sharedClient = sharedClient;
+	}
+
+	public HttpClient httpClient(String serviceId) {
+		if (!properties.isEnabled()) {
+			return sharedClient;
+		}
+		return pools.computeIfAbsent(serviceId.toLowerCase(Locale.ROOT), this::newPool).client();
+	}
+
+	/**
+	 * Drops the pooled connections to an instance that left the registry.
+	 */
+	public void evict(String serviceId, String host, int port) {
+		Pool pool = pools.get(serviceId.toLowerCase(Locale.ROOT));
+		if (pool != null) {
+			try {
+				pool.provider().disposeWhen(InetSocketAddress.createUnresolved(host, port));
+			} catch (RuntimeException ex) {
+				log.debug("Evicting pool for {}:{} failed: {}", host, port, ex.toString());
+			}
+		}
+	}
+
+	private Pool newPool(String serviceId) {
+		UpstreamPoolProperties.Pool spec = properties.poolFor(serviceId);
+		ConnectionProvider provider = ConnectionProvider.builder("upstream-" + serviceId)
+				.maxConnections(spec.getMaxConnections())
+				.pendingAcquireMaxCount(spec.getPendingAcquireMaxCount())
+				.pendingAcquireTimeout(spec.getPendingAcquireTimeout())
+				.maxIdleTime(spec.getMaxIdleTime())
+				.maxLifeTime(spec.getMaxLifeTime())
+				.evictInBackground(spec.getEvictInterval())
+				.metrics(true)
+				.build();
+
+		HttpClient client = HttpClient.create(provider)
+				.protocol(spec.isH2c() ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11} : new HttpProtocol[]{HttpProtocol.HTTP11})
+				.compress(httpClientProperties.isCompression());
+		if (httpClientProperties.getConnectTimeout() != null) {
+			client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, httpClientProperties.getConnectTimeout());
+		}
+		if (httpClientProperties.getMaxHeaderSize() != null) {
+			int maxHeaderSize = (int) httpClientProperties.getMaxHeaderSize().toBytes();
+			client = client.httpResponseDecoder(decoder -> decoder.maxHeaderSize(maxHeaderSize));
+		}
+
+		log.info("Connection pool for service={} (maxConnections={}, pendingAcquireMaxCount={}, h2c={})",
+				serviceId, spec.getMaxConnections(), spec.getPendingAcquireMaxCount(), spec.isH2c());
+		return new Pool(provider, client);
+	}
+
+	@Override
+	public void destroy() {
+		pools.values().forEach(pool -> pool.provider().disposeLater().block());
+		pools.clear();
+	}
+
+	private record Pool(ConnectionProvider provider, HttpClient client) {
+	}
+}
@@ -0,0 +1,134 @@
+package com.example.gateway.upstream;
+
+import com.example.gateway.config.UpstreamPoolProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.event.EventListener;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opens connections to instances as soon as they appear in the registry, so the first routed requests
+ * after a deploy or scale-out do not pay TCP setup. Runs at startup and on every discovery heartbeat
+ * (each Eureka cache refresh) for the services behind {@code lb://} routes; instances that left the
+ * registry have their pooled connections dropped.
+ */
+@Slf4j
+public class UpstreamPoolWarmer {
+
+	private final Map<String, Set<String>> knownInstances = new ConcurrentHashMap<>();
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+
+	private final UpstreamConnectionPools pools;
+	private final DiscoveryClient discoveryClient;
+	private final RouteLocator routeLocator;
+	private final UpstreamPoolProperties.Warmup warmup;
+	private final MeterRegistry meterRegistry;
+
+	public UpstreamPoolWarmer(UpstreamConnectionPools pools,
+							  DiscoveryClient discoveryClient,
+							  RouteLocator routeLocator,
+							  UpstreamPoolProperties properties,
+							  MeterRegistry meterRegistry) {
+		this.pools = pools;
+		this.discoveryClient = discoveryClient;
+		this.routeLocator = routeLocator;
+		this.warmup = properties.getWarmup();
+		this.meterRegistry = meterRegistry;
+	}
+
+	@EventListener({ApplicationReadyEvent.class, HeartbeatEvent.class})
+	public void onRegistryChange() {
+		if (!refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		routeLocator.getRoutes()
+				.map(Route::getUri)
+				.filter(uri -> "lb".equals(uri.getScheme()) && uri.getHost() != null)
+				.map(uri -> uri.getHost().toLowerCase(Locale.ROOT))
+				.distinct()
+				.collectList()
+				.doFinally(signal -> refreshing.set(false))
+				.subscribe(this::refresh, ex -> log.warn("Upstream pool refresh failed: {}", ex.toString()));
+	}
+
+	private void refresh(List<String> serviceIds) {
+		for (String serviceId : serviceIds) {
+			List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+			Set<String> current = new HashSet<>();
+			for (ServiceInstance instance : instances) {
+				current.add(key(instance.getHost(), instance.getPort()));
+			}
+			Set<String> previous = knownInstances.put(serviceId, current);
+
+			for (ServiceInstance instance : instances) {
+				if (previous == null || !previous.contains(key(instance.getHost(), instance.getPort()))) {
+					warm(serviceId, instance);
+				}
+			}
+			if (previous != null) {
+				for (String gone : previous) {
+					if (!current.contains(gone)) {
+						int colon = gone.lastIndexOf(':');
+						log.info("Instance {} of service={} left the registry; dropping its connections", gone, serviceId);
+						pools.evict(serviceId, gone.substring(0, colon), Integer.parseInt(gone.substring(colon + 1)));
+					}
+				}
+			}
+		}
+	}
+
+	private void warm(String serviceId, ServiceInstance instance) {
+		if (!warmup.isEnabled() || warmup.getConnections() <= 0) {
+			return;
+		}
+		String target = instance.getUri() + warmup.getPath();
+		HttpClient client = pools.httpClient(serviceId);
+		int connections = warmup.getConnections();
+
+		// concurrent requests force distinct connections into the pool; the response itself is irrelevant
+		Flux.range(0, connections)
+				.flatMap(i -> client.get().uri(target)
+						.responseContent()
+						.then()
+						.timeout(warmup.getTimeout())
+						.thenReturn(true)
+						.onErrorReturn(false), connections)
+				.filter(Boolean::booleanValue)
+				.count()
+				.subscribe(opened -> {
+					counter(serviceId, "opened").increment(opened);
+					counter(serviceId, "failed").increment(connections - opened);
+					log.info("Warmed {}/{} connections to service={} instance={}", opened, connections, serviceId,
+							key(instance.getHost(), instance.getPort()));
+				});
+	}
+
+	private Counter counter(String serviceId, String result) {
+		return counters.computeIfAbsent(serviceId + '|' + result, k -> Counter.builder("gateway.upstream.warmup")
+				.description("Connections opened ahead of traffic to newly registered instances")
+				.tag("service", serviceId)
+				.tag("result", result)
+				.register(meterRegistry));
+	}
+
+	private static String key(String host, int port) {
+		return host + ':' + port;
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.gateway.aggregate;
+
+import com.example.commonlib.security.autoconfigure.SecuritySharedProperties;
+import com.example.gateway.config.AggregationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+class UserDashboardControllerTest {
+
+	// path -> status, content type, body
+	private final Map<String, Reply> replies = new ConcurrentHashMap<>();
+	private DisposableServer upstream;
+	private UserDashboardController controller;
+
+	@BeforeEach
+	void setUp() {
+		upstream = HttpServer.create()
+				.port(0)
+				.handle((request, response) -> {
+					Reply reply = replies.get(request.fullPath());
+					if (reply.delay() != null) {
+						return Mono.delay(reply.delay()).then(response.status(200).send());
+					}
+					return response.status(reply.status())
+							.header("Content-Type", reply.contentType())
+							.sendString(Mono.just(reply.body()))
+							.then();
+				})
+				.bindNow();
+
+		// stands in for the load balancer: every lb:// service resolves to the local upstream
+		// real default methods, so WebClient can compose it with other filters
+		ReactorLoadBalancerExchangeFilterFunction loadBalancer =
+				mock(ReactorLoadBalancerExchangeFilterFunction.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+		doAnswer(invocation -> {
+			ClientRequest request = invocation.getArgument(0);
+			ExchangeFunction next = invocation.getArgument(1);
+			return next.exchange(ClientRequest.from(request)
+					.url(UriComponentsBuilder.fromUri(request.url()).scheme("http").host("localhost").port(upstream.port()).build().toUri())
+					.build());
+		}).when(loadBalancer).filter(any(ClientRequest.class), any(ExchangeFunction.class));
+
+		AggregationProperties properties = new AggregationProperties();
+		properties.setUserTimeout(Duration.ofSeconds(3));
+		properties.setInventoryTimeout(Duration.ofSeconds(3));
+		controller = new UserDashboardController(WebClient.builder(), loadBalancer, properties, new SecuritySharedProperties());
+	}
+
+	@AfterEach
+	void tearDown() {
+		upstream.disposeNow();
+	}
+
+	@Test
+	void missingUserIsA404EvenWithANonJsonErrorPage() {
+		replies.put("/api/users/7", new Reply(404, "text/html", "<h1>Not Found</h1>", null));
+		replies.put("/api/inventory/user/7", new Reply(200, "application/json", "[]", null));
+
+		ResponseEntity<Object> response = dashboard();
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void inventoryClientErrorIsReportedAsSuchNotAsUnavailable() {
+		replies.put("/api/users/7", new Reply(200, "application/json", "{\"id\":7}", null));
+		replies.put("/api/inventory/user/7", new Reply(403, "application/json", "{\"error\":\"forbidden\"}", null));
+
+		ResponseEntity<Object> response = dashboard();
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(errors(response).get("inventory"))
+				.extracting("status", "message")
+				.containsExactly(403, "inventory service rejected the request");
+	}
+
+	@Test
+	void serverErrorsAndTimeoutsAreReportedUnavailable() {
+		replies.put("/api/users/7", new Reply(503, "application/json", "{}", null));
+		replies.put("/api/inventory/user/7", new Reply(200, "application/json", "[]", Duration.ofSeconds(5)));
+
+		ResponseEntity<Object> response = dashboard();
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(errors(response).get("user")).extracting("status").isEqualTo(503);
+		assertThat(errors(response).get("inventory")).extracting("status").isEqualTo(503);
+	}
+
+	private ResponseEntity<Object> dashboard() {
+		return controller.dashboard(7L, MockServerHttpRequest.get("/api/dashboard/users/7").build())
+				.block(Duration.ofSeconds(10));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Map<String, Object>> errors(ResponseEntity<Object> response) {
+		return (Map<String, Map<String, Object>>) ((Map<String, Object>) response.getBody()).get("errors");
+	}
+
+	private record Reply(int status, String contentType, String body, Duration delay) {
+	}
+}
@@ -0,0 +1,131 @@
+package com.example.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BodySizeLimitGatewayFilterFactoryTest {
+
+	private static final int CHUNK = 1024;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicLong upstreamReceived = new AtomicLong();
+	private DisposableServer upstream;
+	private GatewayFilter filter;
+	private ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		upstream = HttpServer.create()
+				.port(0)
+				.handle((request, response) -> request.receive()
+						.doOnNext(buf -> upstreamReceived.addAndGet(buf.readableBytes()))
+						.then(response.status(200).send()))
+				.bindNow();
+
+		BodySizeLimitGatewayFilterFactory.Config config = new BodySizeLimitGatewayFilterFactory.Config();
+		config.setRouteId("qr-service");
+		config.setMaxSize(DataSize.ofKilobytes(4));
+		filter = new BodySizeLimitGatewayFilterFactory(meterRegistry, new ObjectMapper()).apply(config);
+
+		headersFilters = mock(ObjectProvider.class);
+		when(headersFilters.getIfAvailable()).thenReturn(List.of());
+	}
+
+	@AfterEach
+	void tearDown() {
+		upstream.disposeNow();
+	}
+
+	@Test
+	void streamedUploadOverTheLimitIsRejectedWith413() {
+		MockServerWebExchange exchange = upload(16);
+
+		filter.filter(exchange, routeWith(new NettyRoutingFilter(HttpClient.create(), headersFilters, new HttpClientProperties())))
+				.block(Duration.ofSeconds(10));
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+		assertThat(rejected()).isEqualTo(1);
+	}
+
+	@Test
+	void streamedUploadOverTheLimitIsRejectedWith413WhenTheClientWrapsTheError() {
+		MockServerWebExchange exchange = upload(16);
+
+		// consumes the body and reports its failure wrapped, as an HTTP client reporting a failed request does
+		GatewayFilterChain wrappingClient = e -> e.getRequest().getBody()
+				.doOnNext(DataBufferUtils::release)
+				.then()
+				.onErrorMap(ex -> new IllegalStateException("upstream request failed", ex));
+		filter.filter(exchange, wrappingClient).block(Duration.ofSeconds(10));
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+		assertThat(rejected()).isEqualTo(1);
+	}
+
+	@Test
+	void uploadWithinTheLimitIsForwarded() {
+		MockServerWebExchange exchange = upload(3);
+
+		filter.filter(exchange, routeWith(new NettyRoutingFilter(HttpClient.create(), headersFilters, new HttpClientProperties())))
+				.block(Duration.ofSeconds(10));
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(upstreamReceived).hasValue(3 * CHUNK);
+	}
+
+	// a chunked upload: no Content-Length, so only the running count can catch it
+	private static MockServerWebExchange upload(int chunks) {
+		Flux<DataBuffer> body = Flux.range(0, chunks)
+				.map(i -> DefaultDataBufferFactory.sharedInstance.wrap(new byte[CHUNK]));
+		return MockServerWebExchange.from(MockServerHttpRequest.post("/qr/api/qr/decode").body(body));
+	}
+
+	// a real routing filter against the local upstream, so the client's own error reporting is in play
+	private GatewayFilterChain routeWith(GlobalFilter routingFilter) {
+		URI target = URI.create("http://localhost:" + upstream.port() + "/decode");
+		return exchange -> {
+			exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, target);
+			exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+					Route.async().id("qr-service").uri(target).predicate(e -> true).build());
+			return routingFilter.filter(exchange, e -> Mono.empty());
+		};
+	}
+
+	private double rejected() {
+		return meterRegistry.counter("gateway.body.limit.rejected", "route", "qr-service", "check", "streamed").count();
+	}
+}
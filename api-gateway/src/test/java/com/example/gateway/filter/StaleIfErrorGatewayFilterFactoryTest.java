@@ -0,0 +1,95 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.cache.CacheKey;
+import com.example.gateway.cache.LastKnownGoodStore;
+import com.example.gateway.cache.StaleResponse;
+import com.example.gateway.config.StaleIfErrorProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaleIfErrorGatewayFilterFactoryTest {
+
+	private static final CacheKey KEY = new CacheKey("unknown", "/items", null, ResponseCacheGatewayFilterFactory.ANONYMOUS);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private LastKnownGoodStore store;
+	private GatewayFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		StaleIfErrorProperties properties = new StaleIfErrorProperties();
+		store = new LastKnownGoodStore(properties, meterRegistry);
+		filter = new StaleIfErrorGatewayFilterFactory(store, properties).apply(new StaleIfErrorGatewayFilterFactory.Config());
+	}
+
+	@Test
+	void successfulResponseMakesNoLookup() {
+		MockServerWebExchange exchange = get();
+
+		filter.filter(exchange, e -> {
+			e.getResponse().setStatusCode(HttpStatus.OK);
+			return e.getResponse().writeWith(Mono.just(buffer("fresh")));
+		}).block(Duration.ofSeconds(5));
+
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fresh");
+		assertThat(lookups()).isZero();
+	}
+
+	@Test
+	void failureSeenByBothPathsIsLookedUpOnce() {
+		store.put(KEY, new StaleResponse(200, new HttpHeaders(), "stale".getBytes(StandardCharsets.UTF_8), System.currentTimeMillis()));
+		MockServerWebExchange exchange = get();
+
+		// a 503 whose body then fails: the body decorator resolves the entry, the error reaches onErrorResume uncommitted
+		filter.filter(exchange, e -> {
+			e.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+			return e.getResponse().writeWith(Flux.error(new IllegalStateException("connection reset")));
+		}).block(Duration.ofSeconds(5));
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("STALE");
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("stale");
+		assertThat(lookups()).isEqualTo(1);
+	}
+
+	@Test
+	void upstreamErrorWithNothingStoredCountsOneMiss() {
+		MockServerWebExchange exchange = get();
+
+		Throwable error = filter.filter(exchange, e -> Mono.error(new IllegalStateException("connection refused")))
+				.then(Mono.<Throwable>empty())
+				.onErrorResume(Mono::just)
+				.block(Duration.ofSeconds(5));
+
+		assertThat(error).hasMessage("connection refused");
+		assertThat(meterRegistry.get("gateway.stale.lookups").tag("result", "miss").counter().count()).isEqualTo(1);
+	}
+
+	private double lookups() {
+		return meterRegistry.find("gateway.stale.lookups").counters().stream().mapToDouble(Counter::count).sum();
+	}
+
+	private static MockServerWebExchange get() {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/items"));
+	}
+
+	private static DataBuffer buffer(String text) {
+		return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,115 @@
+package com.example.gateway.push;
+
+import com.example.commonlib.security.autoconfigure.SecuritySharedProperties;
+import com.example.gateway.config.PushProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+class InventoryEventStreamControllerTest {
+
+	// status user-service answers the profile lookup with; null to never answer in time
+	private final AtomicReference<Integer> userServiceStatus = new AtomicReference<>();
+	private DisposableServer upstream;
+	private InventoryEventStreamController controller;
+
+	@BeforeEach
+	void setUp() {
+		upstream = HttpServer.create()
+				.port(0)
+				.handle((request, response) -> {
+					Integer status = userServiceStatus.get();
+					if (status == null) {
+						return Mono.delay(Duration.ofSeconds(5)).then(response.status(200).send());
+					}
+					return response.status(status).sendString(Mono.just("{}")).then();
+				})
+				.bindNow();
+
+		// stands in for the load balancer: lb://user-service resolves to the local upstream
+		ReactorLoadBalancerExchangeFilterFunction loadBalancer =
+				mock(ReactorLoadBalancerExchangeFilterFunction.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+		doAnswer(invocation -> {
+			ClientRequest request = invocation.getArgument(0);
+			ExchangeFunction next = invocation.getArgument(1);
+			return next.exchange(ClientRequest.from(request)
+					.url(UriComponentsBuilder.fromUri(request.url()).scheme("http").host("localhost").port(upstream.port()).build().toUri())
+					.build());
+		}).when(loadBalancer).filter(any(ClientRequest.class), any(ExchangeFunction.class));
+
+		PushProperties properties = new PushProperties();
+		properties.setOwnerLookupTimeout(Duration.ofSeconds(1));
+		controller = new InventoryEventStreamController(new InventoryEventHub(properties, new SimpleMeterRegistry()),
+				properties, WebClient.builder(), loadBalancer, new SecuritySharedProperties());
+	}
+
+	@AfterEach
+	void tearDown() {
+		upstream.disposeNow();
+	}
+
+	@Test
+	void unknownProfileIsA404() {
+		userServiceStatus.set(404);
+		MockServerHttpResponse response = new MockServerHttpResponse();
+
+		assertThatThrownBy(() -> subscribe(response))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+		assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNull();
+	}
+
+	@Test
+	void userServiceFailureIsA503WithRetryAfter() {
+		userServiceStatus.set(500);
+		MockServerHttpResponse response = new MockServerHttpResponse();
+
+		assertThatThrownBy(() -> subscribe(response))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+		assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+	}
+
+	@Test
+	void ownerLookupTimeoutIsA503WithRetryAfter() {
+		userServiceStatus.set(null);
+		MockServerHttpResponse response = new MockServerHttpResponse();
+
+		assertThatThrownBy(() -> subscribe(response))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+		assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+	}
+
+	private void subscribe(MockServerHttpResponse response) {
+		controller.inventoryEvents(7L, new TestingAuthenticationToken("owner@example.com", null, "ROLE_USER"),
+						MockServerHttpRequest.get("/api/events/inventory/user/7").build(), response)
+				.blockFirst(Duration.ofSeconds(10));
+	}
+}
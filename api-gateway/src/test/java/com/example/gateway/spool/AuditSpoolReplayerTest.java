@@ -0,0 +1,136 @@
+package com.example.gateway.spool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSpoolReplayerTest {
+
+	// header (8) + two records of LENGTH (4) + 20 bytes: each segment holds exactly two records
+	private static final int SEGMENT_BYTES = 64;
+	private static final int RECORD_BYTES = 20;
+
+	@TempDir
+	Path directory;
+
+	private AuditSpool spool;
+
+	@AfterEach
+	void tearDown() {
+		if (spool != null) {
+			spool.close();
+		}
+	}
+
+	@Test
+	void replaysInOrderWithoutDuplicatesOnceTheBinderRecovers() {
+		spool = new AuditSpool(directory, SEGMENT_BYTES, 16L * SEGMENT_BYTES);
+		for (int i = 0; i < 5; i++) {
+			assertThat(spool.append(record(i))).isTrue();
+		}
+		StubBinder binder = new StubBinder();
+		AuditSpoolReplayer replayer = new AuditSpoolReplayer(spool, binder, Duration.ofMillis(1), Duration.ofMillis(1));
+
+		binder.acceptNext = 0;
+		assertThat(replayer.replayAvailable()).isZero();
+		assertThat(spool.pendingRecords()).isEqualTo(5);
+
+		// recovers briefly, then refuses again part way through
+		binder.acceptNext = 2;
+		assertThat(replayer.replayAvailable()).isEqualTo(2);
+		assertThat(spool.pendingRecords()).isEqualTo(3);
+
+		binder.acceptNext = Integer.MAX_VALUE;
+		assertThat(replayer.replayAvailable()).isEqualTo(3);
+
+		assertThat(binder.delivered).containsExactly("record-00", "record-01", "record-02", "record-03", "record-04");
+		assertThat(spool.hasBacklog()).isFalse();
+		assertThat(binder.refused).isEqualTo(2);
+	}
+
+	@Test
+	void rollsOverToANewSegmentWhenTheCurrentOneIsFull() throws IOException {
+		spool = new AuditSpool(directory, SEGMENT_BYTES, 16L * SEGMENT_BYTES);
+
+		spool.append(record(0));
+		spool.append(record(1));
+		assertThat(segmentFiles()).hasSize(1);
+
+		spool.append(record(2));
+		assertThat(segmentFiles()).hasSize(2);
+		assertThat(spool.sizeBytes()).isEqualTo(2L * SEGMENT_BYTES);
+
+		// a replayed segment that is no longer written to is deleted
+		StubBinder binder = new StubBinder();
+		new AuditSpoolReplayer(spool, binder, Duration.ofMillis(1), Duration.ofMillis(1)).replayAvailable();
+		assertThat(binder.delivered).containsExactly("record-00", "record-01", "record-02");
+		assertThat(segmentFiles()).hasSize(1);
+	}
+
+	@Test
+	void refusesRecordsOnceMaxSizeIsReached() {
+		spool = new AuditSpool(directory, SEGMENT_BYTES, 2L * SEGMENT_BYTES);
+		for (int i = 0; i < 4; i++) {
+			assertThat(spool.append(record(i))).isTrue();
+		}
+
+		assertThat(spool.append(record(4))).isFalse();
+		assertThat(spool.sizeBytes()).isEqualTo(2L * SEGMENT_BYTES);
+		assertThat(spool.pendingRecords()).isEqualTo(4);
+
+		// draining the oldest segment frees room again
+		StubBinder binder = new StubBinder();
+		binder.acceptNext = 2;
+		new AuditSpoolReplayer(spool, binder, Duration.ofMillis(1), Duration.ofMillis(1)).replayAvailable();
+		assertThat(spool.sizeBytes()).isEqualTo(SEGMENT_BYTES);
+		assertThat(spool.append(record(4))).isTrue();
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(p -> p.getFileName().toString().endsWith(".seg")).toList();
+		}
+	}
+
+	// fixed-size payload, so the segment arithmetic above holds
+	private static byte[] record(int i) {
+		String value = String.format("record-%02d", i);
+		byte[] padded = new byte[RECORD_BYTES];
+		byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(bytes, 0, padded, 0, bytes.length);
+		return padded;
+	}
+
+	/**
+	 * Stands in for the output binding: accepts the next {@code acceptNext} sends, then refuses.
+	 */
+	private static final class StubBinder implements Predicate<byte[]> {
+
+		final List<String> delivered = new ArrayList<>();
+		int acceptNext = Integer.MAX_VALUE;
+		int refused;
+
+		@Override
+		public boolean test(byte[] record) {
+			if (acceptNext <= 0) {
+				refused++;
+				return false;
+			}
+			acceptNext--;
+			delivered.add(new String(record, StandardCharsets.US_ASCII).trim());
+			return true;
+		}
+	}
+}
@@ -5,12 +5,17 @@ import com.example.authservice.dto.AuthRequest;
 import com.example.authservice.dto.AuthResponse;
 import com.example.authservice.dto.RegisterRequest;
 import com.example.authservice.dto.UserCreateRequest;
+import com.example.authservice.revocation.TokenRevocationPublisher;
+import com.example.authservice.revocation.TokenRevokedEvent;
 import com.example.authservice.security.jwt.JwtService;
+import com.example.authservice.security.jwt.VerifiedToken;
 import com.example.authservice.token.RefreshToken;
 import com.example.authservice.token.RefreshTokenRepository;
+import com.example.authservice.token.RefreshTokenStore;
 import com.example.authservice.user.Role;
 import com.example.authservice.user.User;
 import com.example.authservice.user.UserRepository;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +30,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Locale;
 
 @Service
@@ -34,10 +40,12 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserClient userClient;
+    private final TokenRevocationPublisher revocationPublisher;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -119,13 +127,14 @@ public class AuthService {
                 refreshTokenValue != null,
                 refreshTokenValue == null ? 0 : refreshTokenValue.length());
 
-        if (!jwtService.isRefreshToken(refreshTokenValue)) {
+        VerifiedToken verified = jwtService.verify(refreshTokenValue);
+        if (!verified.isRefresh()) {
             log.warn("Refresh rejected: not a refresh token");
             throw new IllegalArgumentException("Invalid token type");
         }
 
-        RefreshToken refreshToken = refreshTokenRepository
-                .findByTokenAndRevokedFalse(refreshTokenValue)
+        RefreshToken refreshToken = refreshTokenStore
+                .findActive(refreshTokenValue)
                 .orElseThrow(() -> {
                     log.warn("Refresh rejected: token not found or revoked");
                     return new IllegalArgumentException("Refresh token not found or revoked");
@@ -138,6 +147,10 @@ public class AuthService {
         }
 
         User user = refreshToken.getUser();
+        if (!user.isActive()) {
+            log.warn("Refresh rejected: account inactive userId={}", user.getId());
+            throw new IllegalArgumentException("Account is disabled");
+        }
         UserDetails userDetails = buildUserDetails(user);
         String accessToken = jwtService.generateAccessToken(userDetails);
 
@@ -150,19 +163,71 @@ public class AuthService {
         return new AuthResponse(accessToken, newRefreshTokenValue);
     }
 
+    /**
+     * Revokes the refresh token and, when the caller sends it, the current access token. Resource servers
+     * learn about the access token through the revocation topic and reject it from then on.
+     */
     @Transactional
-    public void logout(String refreshTokenValue) {
-        log.debug("Logout attempt tokenPresent={} tokenLength={}",
+    public void logout(String refreshTokenValue, String accessTokenValue) {
+        log.debug("Logout attempt tokenPresent={} tokenLength={} accessTokenPresent={}",
                 refreshTokenValue != null,
-                refreshTokenValue == null ? 0 : refreshTokenValue.length());
+                refreshTokenValue == null ? 0 : refreshTokenValue.length(),
+                accessTokenValue != null);
 
-        refreshTokenRepository.findByTokenAndRevokedFalse(refreshTokenValue)
+        refreshTokenStore.findActive(refreshTokenValue)
                 .ifPresent(token -> {
                     token.setRevoked(true);
                     log.info("Logout success: refresh token revoked userId={}",
                             token.getUser() == null ? null : token.getUser().getId());
                     refreshTokenRepository.save(token);
                 });
+
+        if (accessTokenValue != null) {
+            revokeAccessToken(accessTokenValue);
+        }
+    }
+
+    /**
+     * Signs the user out everywhere: all their refresh tokens are revoked, and every access token issued
+     * to them so far is rejected by the resource servers.
+     */
+    @Transactional
+    public void logoutAll(String refreshTokenValue) {
+        RefreshToken refreshToken = refreshTokenStore
+                .findActive(refreshTokenValue)
+                .orElseThrow(() -> {
+                    log.warn("Logout-all rejected: token not found or revoked");
+                    return new IllegalArgumentException("Refresh token not found or revoked");
+                });
+
+        User user = refreshToken.getUser();
+        List<RefreshToken> active = refreshTokenRepository.findAllByUserAndRevokedFalse(user);
+        active.forEach(token -> token.setRevoked(true));
+        refreshTokenRepository.saveAll(active);
+
+        Instant now = Instant.now();
+        // compared with the tokens' millisecond issue time, so a login right after this one is not caught
+        long issuedBefore = now.toEpochMilli() + 1;
+        long expiresAt = now.plusMillis(jwtService.getAccessTokenLifetimeMs()).getEpochSecond() + 1;
+        revocationPublisher.publish(TokenRevokedEvent.subject(user.getEmail(), issuedBefore, expiresAt));
+
+        log.info("Logout-all success userId={} refreshTokensRevoked={}", user.getId(), active.size());
+    }
+
+    private void revokeAccessToken(String accessTokenValue) {
+        VerifiedToken token;
+        try {
+            token = jwtService.verify(accessTokenValue);
+        } catch (JwtException | IllegalArgumentException ex) {
+            // expired or invalid: nothing left to revoke
+            log.debug("Logout: access token not revocable reason={}", ex.getMessage());
+            return;
+        }
+        if (token.isRefresh() || token.tokenId() == null) {
+            log.debug("Logout: bearer is not a revocable access token");
+            return;
+        }
+        revocationPublisher.publish(TokenRevokedEvent.token(token.tokenId(), token.expiresAt().getEpochSecond()));
     }
 
     private String createAndStoreRefreshToken(User user) {
@@ -172,15 +237,7 @@ public class AuthService {
 
         log.debug("Issued refresh token userId={} expiresAt={}", user.getId(), expiry);
 
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(rawToken)
-                .user(user)
-                .expiryDate(expiry)
-                .revoked(false)
-                .createdAt(Instant.now())
-                .build();
-
-        refreshTokenRepository.save(refreshToken);
+        refreshTokenStore.save(user, rawToken, expiry);
         return rawToken;
     }
 
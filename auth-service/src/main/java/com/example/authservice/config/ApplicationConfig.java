@@ -1,18 +1,24 @@
 package com.example.authservice.config;
 
+import com.example.authservice.security.password.BestEffortRehashAuthenticationProvider;
+import com.example.authservice.security.password.OffloadingPasswordEncoder;
+import com.example.authservice.security.password.PasswordHashingExecutor;
 import com.example.authservice.user.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+
 @Configuration
 @RequiredArgsConstructor
 @Slf4j
@@ -27,18 +33,28 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        log.debug("Creating PasswordEncoder bean (BCrypt)");
-        return new BCryptPasswordEncoder();
+    public PasswordHashingExecutor passwordHashingExecutor(
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hashing.queue-budget:500ms}") Duration queueBudget,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new PasswordHashingExecutor(poolSize, queueCapacity, queueBudget, meterRegistry);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt-strength:10}") int strength,
+            PasswordHashingExecutor passwordHashingExecutor) {
+        log.debug("Creating PasswordEncoder bean (BCrypt, strength {})", strength);
+        return new OffloadingPasswordEncoder(new BCryptPasswordEncoder(strength), passwordHashingExecutor);
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         log.debug("Creating AuthenticationProvider bean (DaoAuthenticationProvider)");
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
-        return authProvider;
+        // re-encodes hashes below the configured strength after a successful login, when the hashing pool has room
+        return new BestEffortRehashAuthenticationProvider(userDetailsService(), passwordEncoder, userDetailsService);
     }
 
     @Bean
@@ -0,0 +1,29 @@
+package com.example.authservice.revocation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class TokenRevocationPublisher {
+
+    private static final String BINDING = "tokenRevocations-out-0";
+
+    private final StreamBridge streamBridge;
+
+    public TokenRevocationPublisher(StreamBridge streamBridge) {
+        this.streamBridge = streamBridge;
+    }
+
+    public void publish(TokenRevokedEvent event) {
+        log.debug("Publishing TokenRevokedEvent: {}", event);
+
+        boolean sent = streamBridge.send(BINDING, event);
+        if (sent) {
+            log.debug("TokenRevokedEvent published successfully: destination={}", BINDING);
+        } else {
+            log.warn("TokenRevokedEvent publish returned false: destination={} event={}", BINDING, event);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.authservice.revocation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published on {@code tokenRevocations-out-0}; security-lib's {@code TokenRevocation} is the consumer view.
+ * Either {@code tokenId} (one access token) or {@code subject} plus {@code issuedBeforeEpochMillis}
+ * (every access token of that user issued earlier) is set. {@code issuedBeforeEpochSeconds} carries the same
+ * cut-off rounded up, for consumers that predate the millisecond field.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"subject"})
+public class TokenRevokedEvent {
+
+    private String tokenId;
+    private String subject;
+    private long issuedBeforeEpochSeconds;
+    private long issuedBeforeEpochMillis;
+    // after this no matching access token is valid anyway; consumers drop the entry
+    private long expiresAtEpochSeconds;
+
+    public static TokenRevokedEvent token(String tokenId, long expiresAtEpochSeconds) {
+        return new TokenRevokedEvent(tokenId, null, 0, 0, expiresAtEpochSeconds);
+    }
+
+    public static TokenRevokedEvent subject(String subject, long issuedBeforeEpochMillis, long expiresAtEpochSeconds) {
+        long issuedBeforeEpochSeconds = Math.floorDiv(issuedBeforeEpochMillis + 999, 1000);
+        return new TokenRevokedEvent(null, subject, issuedBeforeEpochSeconds, issuedBeforeEpochMillis, expiresAtEpochSeconds);
+    }
+}
@@ -5,25 +5,33 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.example.authservice.user.UserState;
+import com.example.authservice.user.UserStateCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Authenticates bearer access tokens from their claims (subject, roles, active flag). The user row is not
+ * read per request: only {@link UserStateCache} is consulted, so a deactivation or role change made after
+ * the token was issued still takes effect.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserStateCache userStateCache;
 
     @Override
     protected void doFilterInternal(
@@ -52,26 +60,49 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
+        final VerifiedToken token;
         try {
-            userEmail = jwtService.extractUsername(jwt);
-        } catch (JwtException ex) {
+            token = jwtService.verify(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
             log.warn("Invalid JWT for {} {} reason={}", request.getMethod(), path, ex.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
+        if (token.isRefresh()) {
+            log.warn("Refresh token used as bearer for {} {}", request.getMethod(), path);
+            filterChain.doFilter(request, response);
+            return;
+        }
 
+        // signature and expiry are already checked; nothing below parses the token again
+        userEmail = token.subject();
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                log.debug("JWT authenticated user={} for {} {}", userEmail, request.getMethod(), path);
+            UserState state = userStateCache.get(userEmail);
+            if (!token.active() || !state.active()) {
+                log.warn("JWT rejected: account inactive user={} for {} {}", userEmail, request.getMethod(), path);
+                filterChain.doFilter(request, response);
+                return;
             }
+
+            List<String> authorities = token.authorities();
+            String currentAuthority = state.role() == null ? null : "ROLE_" + state.role().name();
+            if (currentAuthority != null && !authorities.contains(currentAuthority)) {
+                // role changed since the token was issued
+                authorities = List.of(currentAuthority);
+            }
+
+            UserDetails principal = User.withUsername(userEmail)
+                    .password("")
+                    .authorities(authorities.toArray(String[]::new))
+                    .build();
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    principal,
+                    null,
+                    principal.getAuthorities()
+            );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            log.debug("JWT authenticated user={} for {} {}", userEmail, request.getMethod(), path);
         }
 
         filterChain.doFilter(request, response);
@@ -1,116 +1,144 @@
 package com.example.authservice.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Issues and verifies the service's HS256 tokens. The signing key and the parser are built once; a
+ * token is parsed and verified exactly once by {@link #verify}, and callers work from the returned
+ * {@link VerifiedToken}. Access tokens carry the user's roles and active flag, so authenticating a
+ * request does not need the user row.
+ */
 @Service
 @Slf4j
 public class JwtService {
 
-    @Value("${security.jwt.secret}")
-    private String secretKey;
-
-    @Value("${security.jwt.expiration-ms}")
-    private long jwtExpirationMs;
-
-    @Value("${security.jwt.refresh-expiration-ms}")
-    private long refreshExpirationMs;
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    // same claim name and prefix convention as security-lib's security.shared.roles-claim / role-prefix
+    private static final String ROLES_CLAIM = "roles";
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String ACTIVE_CLAIM = "active";
+    private static final String TYPE_CLAIM = "typ";
+    // iat is whole seconds; revocation cut-offs need the exact issue time (security-lib's RevocationList)
+    private static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+    private static final String REFRESH_TYPE = "refresh";
+
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long jwtExpirationMs;
+    private final long refreshExpirationMs;
+
+    public JwtService(@Value("${security.jwt.secret}") String secretKey,
+                      @Value("${security.jwt.expiration-ms}") long jwtExpirationMs,
+                      @Value("${security.jwt.refresh-expiration-ms}") long refreshExpirationMs) {
+        this.signingKey = signingKey(secretKey);
+        // JwtParser is immutable and thread-safe
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public long getAccessTokenLifetimeMs() {
+        return jwtExpirationMs;
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Parses and verifies the token once.
+     *
+     * @throws JwtException if the token is malformed, wrongly signed or expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        VerifiedToken.Type type = REFRESH_TYPE.equals(claims.get(TYPE_CLAIM))
+                ? VerifiedToken.Type.REFRESH
+                : VerifiedToken.Type.ACCESS;
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getId(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                type,
+                authorities(claims.get(ROLES_CLAIM)),
+                !Boolean.FALSE.equals(claims.get(ACTIVE_CLAIM)));
     }
 
     public String generateAccessToken(UserDetails userDetails) {
         log.debug("Generating access token for user={}", userDetails.getUsername());
-        return generateToken(new HashMap<>(), userDetails, jwtExpirationMs);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, roles(userDetails.getAuthorities()));
+        claims.put(ACTIVE_CLAIM, userDetails.isEnabled());
+        return generateToken(claims, userDetails, jwtExpirationMs);
     }
 
     public String generateRefreshToken(UserDetails userDetails) {
         log.debug("Generating refresh token for user={}", userDetails.getUsername());
         Map<String, Object> claims = new HashMap<>();
-        claims.put("typ", "refresh");
+        claims.put(TYPE_CLAIM, REFRESH_TYPE);
         return generateToken(claims, userDetails, refreshExpirationMs);
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        // Do not log token contents
-        final String username = extractUsername(token);
-        boolean matches = username.equals(userDetails.getUsername());
-        boolean expired = isTokenExpired(token);
-        boolean valid = matches && !expired;
-        if (!valid && log.isDebugEnabled()) {
-            log.debug("Token invalid for user={} matchesUsername={} expired={}", userDetails.getUsername(), matches, expired);
-        }
-        return valid;
-    }
-
-    public boolean isRefreshToken(String token) {
-        Claims claims = extractAllClaims(token);
-        Object typ = claims.get("typ");
-        return "refresh".equals(typ);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
         Instant now = Instant.now();
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString()) // jti, so a single token can be revoked
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(Date.from(now))
+                .claim(ISSUED_AT_MS_CLAIM, now.toEpochMilli())
                 .setExpiration(Date.from(now.plusMillis(expiration)))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Authorities go into the token without the {@code ROLE_} prefix, which resource servers add back.
+     */
+    private static List<String> roles(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority)
+                .toList();
+    }
+
+    private static List<String> authorities(Object roles) {
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream().map(role -> ROLE_PREFIX + role).toList();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
     }
 
-    private Key getSigningKey() {
+    private static Key signingKey(String secretKey) {
         // Allow either plain text or base64 encoded secret
         byte[] keyBytes;
         try {
             keyBytes = Decoders.BASE64.decode(secretKey);
-            if (log.isDebugEnabled()) {
-                log.debug("JWT secret interpreted as base64");
-            }
+            log.debug("JWT secret interpreted as base64");
         } catch (IllegalArgumentException ex) {
             keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-            if (log.isDebugEnabled()) {
-                log.debug("JWT secret interpreted as plain text");
-            }
+            log.debug("JWT secret interpreted as plain text");
         }
         return Keys.hmacShaKeyFor(keyBytes);
     }
@@ -0,0 +1,29 @@
+package com.example.authservice.security.jwt;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A token whose signature and expiry {@link JwtService#verify} has already checked, with the claims the
+ * service acts on. Callers read these fields instead of parsing the token again.
+ *
+ * @param tokenId     the {@code jti}; null for tokens issued before it was added
+ * @param authorities full authority names, e.g. {@code ROLE_USER}
+ * @param active      the account's state at issue time; true for tokens issued before the claim existed
+ */
+public record VerifiedToken(String subject,
+                            String tokenId,
+                            Instant issuedAt,
+                            Instant expiresAt,
+                            Type type,
+                            List<String> authorities,
+                            boolean active) {
+
+    public enum Type {
+        ACCESS, REFRESH
+    }
+
+    public boolean isRefresh() {
+        return type == Type.REFRESH;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.authservice.security.password;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} whose rehash-on-login is best effort. The rehash goes through the
+ * same {@link PasswordHashingExecutor} as the login itself, so during a burst it can be turned away. A
+ * login whose password has already verified then succeeds with the old hash, and a later login upgrades it.
+ */
+@Slf4j
+public class BestEffortRehashAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final UserDetailsPasswordService passwordService;
+
+    public BestEffortRehashAuthenticationProvider(UserDetailsService userDetailsService,
+                                                  PasswordEncoder passwordEncoder,
+                                                  UserDetailsPasswordService passwordService) {
+        super(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        // not handed to the superclass, which would let a rejected rehash fail the login
+        this.passwordService = passwordService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        UserDetails current = user;
+        PasswordEncoder passwordEncoder = getPasswordEncoder();
+        if (authentication.getCredentials() != null && passwordEncoder.upgradeEncoding(user.getPassword())) {
+            try {
+                String rehashed = passwordEncoder.encode(authentication.getCredentials().toString());
+                current = passwordService.updatePassword(user, rehashed);
+            } catch (PasswordHashingRejectedException ex) {
+                log.debug("Skipping password rehash, hashing pool busy: {}", ex.getReason());
+            }
+        }
+        return super.createSuccessAuthentication(principal, authentication, current);
+    }
+}
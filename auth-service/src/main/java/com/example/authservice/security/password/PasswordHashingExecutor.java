@@ -0,0 +1,110 @@
+package com.example.authservice.security.password;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a fixed, CPU-sized pool instead of on request threads.
+ * <p>
+ * Admission is bounded twice. A full queue rejects at once (429). A task that waited longer than
+ * {@code queueBudget} before a hashing thread picked it up is dropped without hashing (503), since its
+ * caller is likely to time out anyway. A login burst therefore costs at most {@code threads} cores and
+ * a short wait, and refresh and token traffic keep their request threads.
+ */
+@Slf4j
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor pool;
+    private final long queueBudgetNanos;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedBudget;
+
+    public PasswordHashingExecutor(int threads, int queueCapacity, Duration queueBudget, MeterRegistry meterRegistry) {
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueBudgetNanos = queueBudget.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.queueWait = Timer.builder("auth.password.queue.wait")
+                .description("Time a hashing request waited for a hashing thread")
+                .register(meterRegistry);
+        this.rejectedQueueFull = rejected("queue_full");
+        this.rejectedBudget = rejected("queue_budget");
+        Gauge.builder("auth.password.queue.depth", pool, p -> p.getQueue().size())
+                .description("Hashing requests waiting for a hashing thread")
+                .register(meterRegistry);
+        log.info("Password hashing pool threads={} queueCapacity={} queueBudget={}", threads, queueCapacity, queueBudget);
+    }
+
+    /**
+     * Runs {@code task} on the hashing pool and waits for it.
+     *
+     * @param operation metric tag, e.g. {@code encode} or {@code matches}
+     * @throws PasswordHashingRejectedException when over capacity
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Timer hashTimer = Timer.builder("auth.password.hash")
+                .description("Password hashing and verification time, excluding queueing")
+                .tag("operation", operation)
+                .register(meterRegistry);
+
+        Future<T> future;
+        try {
+            future = pool.submit(() -> {
+                long waited = System.nanoTime() - submittedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > queueBudgetNanos) {
+                    rejectedBudget.increment();
+                    throw new PasswordHashingRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "Authentication is busy, retry shortly");
+                }
+                return hashTimer.record(task);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejectedQueueFull.increment();
+            throw new PasswordHashingRejectedException(HttpStatus.TOO_MANY_REQUESTS, "Too many authentication requests, retry shortly");
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "Authentication interrupted");
+        }
+    }
+
+    private Counter rejected(String reason) {
+        return Counter.builder("auth.password.rejected")
+                .description("Hashing requests rejected for lack of capacity")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
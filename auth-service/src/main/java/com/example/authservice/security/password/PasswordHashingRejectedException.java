@@ -0,0 +1,24 @@
+package com.example.authservice.security.password;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Password hashing is over capacity. Rendered as 429 when the queue is full and 503 when a queued
+ * request ran out of its wait budget, in both cases with {@code Retry-After} so clients back off.
+ */
+public class PasswordHashingRejectedException extends ResponseStatusException {
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    PasswordHashingRejectedException(HttpStatus status, String reason) {
+        super(status, reason);
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+}
@@ -23,8 +23,19 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 512)
-    private String token;
+    /**
+     * {@link RefreshTokenDigest} of the issued token. Nullable only for rows that
+     * {@link RefreshTokenHashMigration} has not reached yet.
+     */
+    @Column(name = "token_hash", unique = true, columnDefinition = "binary(" + RefreshTokenDigest.LENGTH + ")")
+    private byte[] tokenHash;
+
+    /**
+     * Raw token, kept only while {@code security.refresh-token.legacy-column} is on. Drop the column
+     * once it is empty everywhere.
+     */
+    @Column(name = "token", length = 512)
+    private String legacyToken;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
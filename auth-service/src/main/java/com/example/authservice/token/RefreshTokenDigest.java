@@ -0,0 +1,25 @@
+package com.example.authservice.token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 of a refresh token, the only form in which tokens are stored and looked up. Refresh tokens
+ * are signed JWTs with a random jti, so a plain digest is enough; there is nothing to brute-force.
+ */
+public final class RefreshTokenDigest {
+
+    public static final int LENGTH = 32;
+
+    private RefreshTokenDigest() {
+    }
+
+    public static byte[] of(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
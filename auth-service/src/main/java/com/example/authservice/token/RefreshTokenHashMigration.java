@@ -0,0 +1,83 @@
+package com.example.authservice.token;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Moves {@code refresh_tokens} from the raw-token key to {@code token_hash}, so tokens issued before
+ * the digest existed stay valid. It runs once all singletons exist, which is after Hibernate's schema
+ * update has added the column and before the web server accepts requests.
+ * <ol>
+ *     <li>Drops NOT NULL from the raw {@code token} column. {@code ddl-auto: update} never relaxes
+ *     constraints, and new rows leave the column empty.</li>
+ *     <li>Fills {@code token_hash} for rows that lack it, in batches.</li>
+ *     <li>Clears the raw column once {@code security.refresh-token.legacy-column} is off.</li>
+ * </ol>
+ * Every statement is idempotent, so instances starting at the same time do not conflict.
+ */
+@Slf4j
+@Component
+public class RefreshTokenHashMigration implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean legacyColumn;
+
+    public RefreshTokenHashMigration(JdbcTemplate jdbcTemplate,
+                                     @Value("${security.refresh-token.legacy-column:false}") boolean legacyColumn) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.legacyColumn = legacyColumn;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        relaxLegacyColumn();
+
+        int hashed = 0;
+        List<LegacyRow> batch;
+        do {
+            batch = jdbcTemplate.query(
+                    "select id, token from refresh_tokens where token_hash is null and token is not null limit ?",
+                    (rs, rowNum) -> new LegacyRow(rs.getLong("id"), rs.getString("token")),
+                    BATCH_SIZE);
+            jdbcTemplate.batchUpdate(
+                    "update refresh_tokens set token_hash = ? where id = ? and token_hash is null",
+                    batch.stream()
+                            .map(row -> new Object[]{RefreshTokenDigest.of(row.token()), row.id()})
+                            .toList());
+            hashed += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+
+        int cleared = legacyColumn ? 0 : jdbcTemplate.update(
+                "update refresh_tokens set token = null where token is not null and token_hash is not null");
+
+        if (hashed > 0 || cleared > 0) {
+            log.info("Refresh token migration hashed={} rawTokensCleared={}", hashed, cleared);
+        }
+    }
+
+    private void relaxLegacyColumn() {
+        Boolean notNull = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData()
+                    .getColumns(connection.getCatalog(), null, "refresh_tokens", "token")) {
+                return columns.next() && columns.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls;
+            }
+        });
+        if (Boolean.TRUE.equals(notNull)) {
+            log.info("Making refresh_tokens.token nullable");
+            jdbcTemplate.execute("alter table refresh_tokens modify token varchar(512) null");
+        }
+    }
+
+    private record LegacyRow(long id, String token) {
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.authservice.token;
 
+import com.example.authservice.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByTokenAndRevokedFalse(String token);
+    Optional<RefreshToken> findByTokenHashAndRevokedFalse(byte[] tokenHash);
+
+    Optional<RefreshToken> findByLegacyTokenAndRevokedFalse(String legacyToken);
+
+    List<RefreshToken> findAllByUserAndRevokedFalse(User user);
 }
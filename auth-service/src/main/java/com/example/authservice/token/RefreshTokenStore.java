@@ -0,0 +1,64 @@
+package com.example.authservice.token;
+
+import com.example.authservice.user.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Stores and finds refresh tokens by their {@link RefreshTokenDigest}, a 32-byte key instead of the
+ * full JWT.
+ * <p>
+ * {@code security.refresh-token.legacy-column} is for the rolling deploy that introduces the digest.
+ * While it is on, new rows also carry the raw token, so instances still on the old code can find them.
+ * A digest miss also falls back to the raw column and hashes the row it finds, which covers tokens
+ * those instances issue. Turn it off once no old instance is left. {@link RefreshTokenHashMigration}
+ * then clears the raw column on the next start.
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    private final RefreshTokenRepository repository;
+    private final boolean legacyColumn;
+
+    public RefreshTokenStore(RefreshTokenRepository repository,
+                             @Value("${security.refresh-token.legacy-column:false}") boolean legacyColumn) {
+        this.repository = repository;
+        this.legacyColumn = legacyColumn;
+    }
+
+    /**
+     * Must run inside the caller's transaction so that an upgraded legacy row is flushed with it.
+     */
+    public Optional<RefreshToken> findActive(String rawToken) {
+        if (rawToken == null) {
+            return Optional.empty();
+        }
+        byte[] digest = RefreshTokenDigest.of(rawToken);
+        Optional<RefreshToken> token = repository.findByTokenHashAndRevokedFalse(digest);
+        if (token.isPresent() || !legacyColumn) {
+            return token;
+        }
+        return repository.findByLegacyTokenAndRevokedFalse(rawToken)
+                .map(legacy -> {
+                    log.debug("Hashed legacy refresh token id={}", legacy.getId());
+                    legacy.setTokenHash(digest);
+                    return legacy;
+                });
+    }
+
+    public RefreshToken save(User user, String rawToken, Instant expiry) {
+        return repository.save(RefreshToken.builder()
+                .tokenHash(RefreshTokenDigest.of(rawToken))
+                .legacyToken(legacyColumn ? rawToken : null)
+                .user(user)
+                .expiryDate(expiry)
+                .revoked(false)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.authservice.user;
+
+/**
+ * The parts of a user that can change while their access tokens are still valid.
+ * An unknown user is represented as inactive.
+ */
+public record UserState(boolean active, Role role) {
+
+    static final UserState UNKNOWN = new UserState(false, null);
+
+    static UserState of(User user) {
+        return new UserState(user.isActive(), user.getRole());
+    }
+}
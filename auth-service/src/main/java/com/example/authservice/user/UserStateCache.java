@@ -0,0 +1,40 @@
+package com.example.authservice.user;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of {@link UserState} by email, for the checks where token claims may be stale: an
+ * account deactivated or re-roled after its token was issued. A miss costs one {@code findByEmail};
+ * {@link UserStateCacheInvalidator} evicts an entry when its row changes in this instance, and {@code ttl}
+ * bounds how long a change made through another instance can go unnoticed.
+ */
+@Service
+@Slf4j
+public class UserStateCache {
+
+    private final LoadingCache<String, UserState> cache;
+
+    public UserStateCache(UserRepository userRepository,
+                          @Value("${security.user-state-cache.max-entries:10000}") long maxEntries,
+                          @Value("${security.user-state-cache.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build(email -> userRepository.findByEmail(email).map(UserState::of).orElse(UserState.UNKNOWN));
+    }
+
+    public UserState get(String email) {
+        return cache.get(email);
+    }
+
+    public void invalidate(String email) {
+        log.debug("Invalidating cached user state email={}", email);
+        cache.invalidate(email);
+    }
+}
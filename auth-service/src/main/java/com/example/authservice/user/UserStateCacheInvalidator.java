@@ -0,0 +1,42 @@
+package com.example.authservice.user;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User}: evicts the user's cached state whenever the row is updated or removed,
+ * such as on deactivation or a role change. Eviction waits for the commit, so a concurrent request cannot
+ * reload and cache the old row.
+ * <p>
+ * Hibernate builds its listeners while the entity manager factory is created, and the cache needs the
+ * repository that factory backs, so the cache is looked up on first use.
+ */
+@Component
+public class UserStateCacheInvalidator {
+
+    private final ObjectProvider<UserStateCache> userStateCache;
+
+    public UserStateCacheInvalidator(ObjectProvider<UserStateCache> userStateCache) {
+        this.userStateCache = userStateCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void onChange(User user) {
+        String email = user.getEmail();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userStateCache.getObject().invalidate(email);
+                }
+            });
+        } else {
+            userStateCache.getObject().invalidate(email);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.common.config;
+
+import com.example.common.internalauth.Hs256InternalTokenMinter;
+import com.example.common.internalauth.InternalTokenFeignInterceptor;
+import com.example.common.internalauth.InternalTokenMinter;
+import com.example.common.internalauth.InternalTokenProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+/**
+ * Cached, pre-rotated service token on every outgoing Feign call, for services that call their peers
+ * (auth-service and inventory-service to user-service). A service can replace the HS256
+ * {@link InternalTokenMinter} with its own bean.
+ */
+@Slf4j
+@AutoConfiguration
+@ConditionalOnClass(name = "org.springframework.cloud.openfeign.FeignClient")
+@ConditionalOnProperty(prefix = "common.internal-token", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(InternalTokenProperties.class)
+public class InternalTokenAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public InternalTokenMinter internalTokenMinter(InternalTokenProperties properties, Environment env) {
+		String secret = StringUtils.hasText(properties.getSecret()) ? properties.getSecret() : env.getProperty("security.jwt.secret");
+		if (!StringUtils.hasText(secret)) {
+			throw new IllegalStateException("common.internal-token.secret or security.jwt.secret must be set when internal-token is enabled");
+		}
+		String subject = StringUtils.hasText(properties.getSubject())
+				? properties.getSubject()
+				: env.getProperty("spring.application.name", "service") + "-internal";
+		log.info("Auto-configuring internal service token subject={} roles={} ttl={}", subject, properties.getRoles(), properties.getTtl());
+		return new Hs256InternalTokenMinter(secret, subject, properties.getRoles(), properties.getTtl());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public InternalTokenProvider internalTokenProvider(InternalTokenMinter minter, InternalTokenProperties properties) {
+		return new InternalTokenProvider(minter, properties.getRefreshBefore());
+	}
+
+	@Bean
+	public InternalTokenFeignInterceptor internalTokenFeignInterceptor(InternalTokenProvider provider) {
+		return new InternalTokenFeignInterceptor(provider);
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+	static class Metrics {
+
+		@Bean
+		public MeterBinder internalTokenMetrics(InternalTokenProvider provider) {
+			return registry -> {
+				FunctionCounter.builder("internal.token.mints", provider, InternalTokenProvider::mintCount)
+						.description("Service tokens minted")
+						.tag("result", "success")
+						.register(registry);
+				FunctionCounter.builder("internal.token.mints", provider, InternalTokenProvider::failureCount)
+						.description("Service tokens minted")
+						.tag("result", "failure")
+						.register(registry);
+				Gauge.builder("internal.token.age", provider, InternalTokenProvider::ageSeconds)
+						.description("Age of the cached service token")
+						.baseUnit("seconds")
+						.register(registry);
+			};
+		}
+	}
+}
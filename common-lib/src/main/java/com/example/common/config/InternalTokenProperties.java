@@ -0,0 +1,42 @@
+package com.example.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service token attached to outgoing Feign calls; see {@code com.example.common.internalauth}.
+ */
+@ConfigurationProperties(prefix = "common.internal-token")
+public class InternalTokenProperties {
+
+	private boolean enabled = false;
+	/** Signing secret; defaults to {@code security.jwt.secret}. */
+	private String secret;
+	/** Token subject; defaults to {@code <spring.application.name>-internal}. */
+	private String subject;
+	private List<String> roles = new ArrayList<>(List.of("INTERNAL"));
+	private Duration ttl = Duration.ofMinutes(5);
+	/** Rotate this long before expiry, so callers never see a token close to expiring. */
+	private Duration refreshBefore = Duration.ofMinutes(1);
+
+	public boolean isEnabled() { return enabled; }
+	public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+	public String getSecret() { return secret; }
+	public void setSecret(String secret) { this.secret = secret; }
+
+	public String getSubject() { return subject; }
+	public void setSubject(String subject) { this.subject = subject; }
+
+	public List<String> getRoles() { return roles; }
+	public void setRoles(List<String> roles) { this.roles = roles; }
+
+	public Duration getTtl() { return ttl; }
+	public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+	public Duration getRefreshBefore() { return refreshBefore; }
+	public void setRefreshBefore(Duration refreshBefore) { this.refreshBefore = refreshBefore; }
+}
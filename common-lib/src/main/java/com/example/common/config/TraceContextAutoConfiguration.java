@@ -0,0 +1,62 @@
+package com.example.common.config;
+
+import com.example.common.trace.TraceContextChannelInterceptor;
+import com.example.common.trace.TraceContextFeignInterceptor;
+import com.example.common.trace.TraceContextServletFilter;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.integration.config.GlobalChannelInterceptor;
+
+/**
+ * W3C trace-context propagation for every service that depends on common-lib: servlet requests in,
+ * Feign calls out, and Kafka messages both ways. The gateway (reactive) starts the trace itself.
+ */
+@AutoConfiguration
+public class TraceContextAutoConfiguration {
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+	static class ServletTraceContextConfiguration {
+
+		@Bean
+		public FilterRegistrationBean<TraceContextServletFilter> traceContextServletFilter() {
+			FilterRegistrationBean<TraceContextServletFilter> registration = new FilterRegistrationBean<>(new TraceContextServletFilter());
+			// ahead of Spring Security so its log lines carry the trace id too
+			registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+			return registration;
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "feign.RequestInterceptor")
+	static class FeignTraceContextConfiguration {
+
+		@Bean
+		public TraceContextFeignInterceptor traceContextFeignInterceptor() {
+			return new TraceContextFeignInterceptor();
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "org.springframework.cloud.stream.function.StreamBridge")
+	static class MessagingTraceContextConfiguration {
+
+		// binding channels follow the <function>-out-<n> / <function>-in-<n> naming, StreamBridge's included
+		@Bean
+		@GlobalChannelInterceptor(patterns = "*-out-*")
+		public TraceContextChannelInterceptor traceContextOutboundInterceptor() {
+			return TraceContextChannelInterceptor.outbound();
+		}
+
+		@Bean
+		@GlobalChannelInterceptor(patterns = "*-in-*")
+		public TraceContextChannelInterceptor traceContextInboundInterceptor() {
+			return TraceContextChannelInterceptor.inbound();
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.example.common.event;
 
 import com.example.common.api.ApiStatus;
+import com.example.common.trace.TraceContextHolder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -13,6 +14,7 @@ import java.time.Instant;
 /**
  * Generic wrapper used for publishing domain events via messaging (Kafka/Spring Cloud Stream).
  * Keep this class lightweight and safe-to-log (payload excluded from toString).
+ * A null {@code traceId} passed to the factories is filled from the current {@link TraceContextHolder}.
  */
 @Getter
 @Builder
@@ -53,7 +55,7 @@ public class EventEnvelope<T> {
                 .payload(payload)
                 .createdAt(Instant.now())
                 .sourceService(sourceService)
-                .traceId(traceId)
+                .traceId(traceId != null ? traceId : TraceContextHolder.currentTraceId())
                 .build();
     }
 
@@ -77,7 +79,7 @@ public class EventEnvelope<T> {
                 .payload(payload)
                 .createdAt(Instant.now())
                 .sourceService(sourceService)
-                .traceId(traceId)
+                .traceId(traceId != null ? traceId : TraceContextHolder.currentTraceId())
                 .build();
     }
 }
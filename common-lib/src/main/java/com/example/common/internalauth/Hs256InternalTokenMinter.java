@@ -0,0 +1,88 @@
+package com.example.common.internalauth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Mints HS256 JWTs under the shared {@code security.jwt.secret} with the JDK alone, so a service can call
+ * its peers without a JWT library. Claims follow auth-service's access tokens: {@code sub}, {@code roles}
+ * (without the {@code ROLE_} prefix), {@code iat}, {@code exp} and a random {@code jti}.
+ */
+public class Hs256InternalTokenMinter implements InternalTokenMinter {
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final String HEADER = ENCODER.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+	private final SecretKeySpec key;
+	private final String subject;
+	private final List<String> roles;
+	private final Duration ttl;
+
+	public Hs256InternalTokenMinter(String secret, String subject, List<String> roles, Duration ttl) {
+		this.key = new SecretKeySpec(keyBytes(secret), "HmacSHA256");
+		this.subject = subject;
+		this.roles = List.copyOf(roles);
+		this.ttl = ttl;
+	}
+
+	@Override
+	public InternalToken mint() {
+		Instant now = Instant.now();
+		Instant expiresAt = now.plus(ttl);
+
+		StringBuilder payload = new StringBuilder(128)
+				.append("{\"sub\":").append(quote(subject))
+				.append(",\"roles\":[");
+		for (int i = 0; i < roles.size(); i++) {
+			payload.append(i == 0 ? "" : ",").append(quote(roles.get(i)));
+		}
+		payload.append("],\"iat\":").append(now.getEpochSecond())
+				.append(",\"exp\":").append(expiresAt.getEpochSecond())
+				.append(",\"jti\":").append(quote(UUID.randomUUID().toString()))
+				.append('}');
+
+		String signingInput = HEADER + '.' + ENCODER.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+		return new InternalToken(signingInput + '.' + ENCODER.encodeToString(sign(signingInput)), expiresAt);
+	}
+
+	private byte[] sign(String signingInput) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(key);
+			return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+		} catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("HmacSHA256 unavailable", ex);
+		}
+	}
+
+	// same interpretation as the resource servers' decoders: Base64 if it decodes, plain text otherwise
+	private static byte[] keyBytes(String secret) {
+		try {
+			return Base64.getDecoder().decode(secret);
+		} catch (IllegalArgumentException ex) {
+			return secret.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	private static String quote(String value) {
+		StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				quoted.append('\\').append(c);
+			} else if (c < 0x20) {
+				quoted.append(String.format("\\u%04x", (int) c));
+			} else {
+				quoted.append(c);
+			}
+		}
+		return quoted.append('"').toString();
+	}
+}
@@ -0,0 +1,9 @@
+package com.example.common.internalauth;
+
+import java.time.Instant;
+
+/**
+ * A signed service token and the instant it stops being accepted.
+ */
+public record InternalToken(String value, Instant expiresAt) {
+}
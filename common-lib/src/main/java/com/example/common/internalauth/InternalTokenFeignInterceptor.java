@@ -0,0 +1,21 @@
+package com.example.common.internalauth;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Authenticates outgoing Feign calls as the service itself with the cached token.
+ */
+public class InternalTokenFeignInterceptor implements RequestInterceptor {
+
+	private final InternalTokenProvider tokenProvider;
+
+	public InternalTokenFeignInterceptor(InternalTokenProvider tokenProvider) {
+		this.tokenProvider = tokenProvider;
+	}
+
+	@Override
+	public void apply(RequestTemplate template) {
+		template.header("Authorization", "Bearer " + tokenProvider.token());
+	}
+}
@@ -0,0 +1,11 @@
+package com.example.common.internalauth;
+
+/**
+ * Creates a fresh service token. Called by {@link InternalTokenProvider} only when the cached token is
+ * due for rotation, never per request.
+ */
+@FunctionalInterface
+public interface InternalTokenMinter {
+
+	InternalToken mint();
+}
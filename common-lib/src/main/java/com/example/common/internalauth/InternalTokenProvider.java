@@ -0,0 +1,119 @@
+package com.example.common.internalauth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the current service token and rotates it in the background {@code refreshBefore} its expiry.
+ * {@link #token()} is a volatile read on the hot path; only the first call, or a call after background
+ * rotation has failed until expiry, mints inline, under a lock.
+ */
+@Slf4j
+public class InternalTokenProvider implements DisposableBean {
+
+	private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+	private final InternalTokenMinter minter;
+	private final Duration refreshBefore;
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+			Thread.ofPlatform().name("internal-token-refresh").daemon().factory());
+	private final LongAdder mints = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+
+	private volatile Current current;
+	private ScheduledFuture<?> pendingRotation;
+
+	public InternalTokenProvider(InternalTokenMinter minter, Duration refreshBefore) {
+		this.minter = minter;
+		this.refreshBefore = refreshBefore;
+	}
+
+	/**
+	 * @return a token valid for at least a moment longer
+	 */
+	public String token() {
+		Current snapshot = current;
+		if (snapshot != null && snapshot.token().expiresAt().isAfter(Instant.now())) {
+			return snapshot.token().value();
+		}
+		return mintIfStale().value();
+	}
+
+	public long mintCount() {
+		return mints.sum();
+	}
+
+	public long failureCount() {
+		return failures.sum();
+	}
+
+	/**
+	 * @return seconds since the cached token was minted, or 0 before the first one
+	 */
+	public double ageSeconds() {
+		Current snapshot = current;
+		return snapshot == null ? 0 : Duration.between(snapshot.mintedAt(), Instant.now()).toMillis() / 1000.0;
+	}
+
+	private synchronized InternalToken mintIfStale() {
+		Current snapshot = current;
+		if (snapshot != null && snapshot.token().expiresAt().isAfter(Instant.now())) {
+			// another caller got here first
+			return snapshot.token();
+		}
+		return rotate();
+	}
+
+	private synchronized InternalToken rotate() {
+		InternalToken token;
+		try {
+			token = minter.mint();
+		} catch (RuntimeException ex) {
+			failures.increment();
+			throw ex;
+		}
+		mints.increment();
+		current = new Current(token, Instant.now());
+		scheduleRotation(token);
+		log.debug("Minted internal service token expiresAt={}", token.expiresAt());
+		return token;
+	}
+
+	private void scheduleRotation(InternalToken token) {
+		scheduleRotation(Duration.between(Instant.now(), token.expiresAt().minus(refreshBefore)));
+	}
+
+	// one pending rotation at a time, whether the last token came from the background or an inline mint
+	private synchronized void scheduleRotation(Duration delay) {
+		if (pendingRotation != null) {
+			pendingRotation.cancel(false);
+		}
+		pendingRotation = scheduler.schedule(this::rotateInBackground, Math.max(0, delay.toMillis()), TimeUnit.MILLISECONDS);
+	}
+
+	private void rotateInBackground() {
+		try {
+			rotate();
+		} catch (RuntimeException ex) {
+			// the cached token stays in use until it expires; callers mint inline after that
+			log.warn("Internal service token rotation failed, retrying in {}: {}", RETRY_DELAY, ex.toString());
+			scheduleRotation(RETRY_DELAY);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.shutdownNow();
+	}
+
+	private record Current(InternalToken token, Instant mintedAt) {
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.common.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load signals for one service instance: a peak-sensitive, time-decayed EWMA of response latency,
+ * the number of requests currently in flight, and when it last failed.
+ */
+public class InstanceStats {
+
+	private final long decayNanos;
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	// guarded by this
+	private double ewmaNanos;
+	private long lastSampleNanos;
+
+	private volatile long lastFailureNanos;
+	private volatile boolean failedOnce;
+
+	public InstanceStats(long decayNanos) {
+		this.decayNanos = decayNanos;
+	}
+
+	public void onStart() {
+		inFlight.incrementAndGet();
+	}
+
+	public void onComplete(long latencyNanos, boolean failed, long nowNanos) {
+		release();
+		if (failed) {
+			lastFailureNanos = nowNanos;
+			failedOnce = true;
+		}
+		if (latencyNanos > 0) {
+			observe(latencyNanos, nowNanos);
+		}
+	}
+
+	/**
+	 * A request that was started but abandoned (cancelled by the caller or a winning hedge): frees its
+	 * in-flight slot without a latency sample.
+	 */
+	public void onDiscard() {
+		release();
+	}
+
+	private void release() {
+		inFlight.updateAndGet(n -> n > 0 ? n - 1 : 0);
+	}
+
+	private synchronized void observe(long latencyNanos, long nowNanos) {
+		if (lastSampleNanos == 0 || latencyNanos > ewmaNanos) {
+			// peak EWMA: jump straight up on a slow response, decay back down gradually
+			ewmaNanos = latencyNanos;
+		} else {
+			double elapsed = Math.max(0, nowNanos - lastSampleNanos);
+			double w = Math.exp(-elapsed / decayNanos);
+			ewmaNanos = ewmaNanos * w + latencyNanos * (1 - w);
+		}
+		lastSampleNanos = nowNanos;
+	}
+
+	/**
+	 * Lower is better: latency estimate scaled by queue depth, inflated for a while after a failure.
+	 */
+	public double cost(long nowNanos, long coldStartNanos, double failurePenalty, long failureDecayNanos) {
+		double latency;
+		synchronized (this) {
+			latency = lastSampleNanos == 0 ? coldStartNanos : ewmaNanos;
+		}
+		double cost = latency * (inFlight.get() + 1);
+
+		if (failedOnce) {
+			double sinceFailure = Math.max(0, nowNanos - lastFailureNanos);
+			cost *= 1 + failurePenalty * Math.exp(-sinceFailure / failureDecayNanos);
+		}
+		return cost;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public synchronized double getEwmaMillis() {
+		return ewmaNanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
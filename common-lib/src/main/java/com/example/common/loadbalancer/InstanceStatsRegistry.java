@@ -0,0 +1,59 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-instance {@link InstanceStats}, shared between the balancer (reads) and the lifecycle callbacks (writes).
+ * Stats of instances that leave discovery are dropped by {@link #retainOnly}, so the map follows the fleet
+ * instead of growing with every instance that ever existed.
+ */
+public class InstanceStatsRegistry {
+
+	private final long decayNanos;
+	private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+	// the list last passed to retainOnly; suppliers hand out the same list until discovery changes
+	private volatile List<ServiceInstance> lastInstances;
+
+	public InstanceStatsRegistry(long decayNanos) {
+		this.decayNanos = decayNanos;
+	}
+
+	public InstanceStats get(ServiceInstance instance) {
+		return stats.computeIfAbsent(key(instance), k -> new InstanceStats(decayNanos));
+	}
+
+	/**
+	 * Stats for the instance if it is tracked, without creating them. Completions use this, so a request
+	 * that outlives its instance's eviction does not bring the entry back with a negative in-flight count.
+	 */
+	public InstanceStats find(ServiceInstance instance) {
+		return stats.get(key(instance));
+	}
+
+	/** Drops the stats of every instance not in {@code instances}, the service's current discovery list. */
+	public void retainOnly(List<ServiceInstance> instances) {
+		if (instances == lastInstances) {
+			return;
+		}
+		lastInstances = instances;
+		Set<String> current = instances.stream().map(InstanceStatsRegistry::key).collect(Collectors.toSet());
+		stats.keySet().retainAll(current);
+	}
+
+	int size() {
+		return stats.size();
+	}
+
+	static String key(ServiceInstance instance) {
+		return instance.getInstanceId() != null
+				? instance.getInstanceId()
+				: instance.getHost() + ':' + instance.getPort();
+	}
+}
@@ -0,0 +1,54 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Load-balancer client configuration replacing round-robin with {@link PowerOfTwoChoicesLoadBalancer}.
+ * Not a {@code @Configuration}: opt in per application with
+ * {@code @LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)}.
+ * Beans live in each service's load-balancer child context, so stats are tracked per downstream service.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+	private static final String PREFIX = "common.loadbalancer.p2c.";
+
+	@Bean
+	public InstanceStatsRegistry instanceStatsRegistry(Environment env) {
+		Duration decay = duration(env, "latency-decay", "10s");
+		return new InstanceStatsRegistry(decay.toNanos());
+	}
+
+	@Bean
+	public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+			Environment env,
+			ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+			InstanceStatsRegistry instanceStatsRegistry) {
+
+		String serviceId = env.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+		Duration coldStart = duration(env, "cold-start-latency", "5ms");
+		double failurePenalty = env.getProperty(PREFIX + "failure-penalty", Double.class, 10.0);
+		Duration failureDecay = duration(env, "failure-decay", "5s");
+
+		return new PowerOfTwoChoicesLoadBalancer(serviceId, supplierProvider, instanceStatsRegistry,
+				coldStart.toNanos(), failurePenalty, failureDecay.toNanos());
+	}
+
+	@Bean
+	public LatencyTrackingLoadBalancerLifecycle latencyTrackingLoadBalancerLifecycle(InstanceStatsRegistry instanceStatsRegistry) {
+		return new LatencyTrackingLoadBalancerLifecycle(instanceStatsRegistry);
+	}
+
+	// child load-balancer contexts don't carry Boot's conversion service, so parse "10s"-style values directly
+	private static Duration duration(Environment env, String name, String defaultValue) {
+		return DurationStyle.detectAndParse(env.getProperty(PREFIX + name, defaultValue));
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+/**
+ * Feeds {@link InstanceStatsRegistry} from the load-balancer lifecycle, which both the gateway's
+ * {@code ReactiveLoadBalancerClientFilter} and OpenFeign's load-balanced client invoke. A {@code DISCARD}
+ * completion (a cancelled call) releases the in-flight slot without recording a latency.
+ */
+public class LatencyTrackingLoadBalancerLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+	private final InstanceStatsRegistry statsRegistry;
+
+	public LatencyTrackingLoadBalancerLifecycle(InstanceStatsRegistry statsRegistry) {
+		this.statsRegistry = statsRegistry;
+	}
+
+	@Override
+	public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+		return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+	}
+
+	@Override
+	public void onStart(Request<Object> request) {
+	}
+
+	@Override
+	public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+		if (request.getContext() instanceof TimedRequestContext timed) {
+			timed.setRequestStartTime(System.nanoTime());
+		}
+		if (lbResponse.hasServer()) {
+			statsRegistry.get(lbResponse.getServer()).onStart();
+		}
+	}
+
+	@Override
+	public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+		Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+		if (lbResponse == null || !lbResponse.hasServer()) {
+			return;
+		}
+		InstanceStats stats = statsRegistry.find(lbResponse.getServer());
+		if (stats == null) {
+			return;
+		}
+		if (completionContext.status() == CompletionContext.Status.DISCARD) {
+			stats.onDiscard();
+			return;
+		}
+
+		long now = System.nanoTime();
+		long latency = 0;
+		Object context = completionContext.getLoadBalancerRequest() != null
+				? completionContext.getLoadBalancerRequest().getContext()
+				: null;
+		if (context instanceof TimedRequestContext timed && timed.getRequestStartTime() > 0) {
+			latency = now - timed.getRequestStartTime();
+		}
+
+		stats.onComplete(latency, isFailure(completionContext), now);
+	}
+
+	private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+		if (completionContext.status() == CompletionContext.Status.FAILED) {
+			return true;
+		}
+		return completionContext.getClientResponse() instanceof ResponseData data
+				&& data.getHttpStatus() != null
+				&& data.getHttpStatus().is5xxServerError();
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.common.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two distinct random instances and routes to the cheaper one according to {@link InstanceStats#cost}.
+ * Random sampling keeps the herd from piling onto a single "best" instance, while the comparison steers
+ * away from instances that are slow, busy or recently failing.
+ */
+@Slf4j
+public class PowerOfTwoChoicesLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+	private final String serviceId;
+	private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+	private final InstanceStatsRegistry statsRegistry;
+	private final long coldStartNanos;
+	private final double failurePenalty;
+	private final long failureDecayNanos;
+
+	public PowerOfTwoChoicesLoadBalancer(String serviceId,
+										 ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+										 InstanceStatsRegistry statsRegistry,
+										 long coldStartNanos,
+										 double failurePenalty,
+										 long failureDecayNanos) {
+		this.serviceId = serviceId;
+		this.supplierProvider = supplierProvider;
+		this.statsRegistry = statsRegistry;
+		this.coldStartNanos = coldStartNanos;
+		this.failurePenalty = failurePenalty;
+		this.failureDecayNanos = failureDecayNanos;
+	}
+
+	@Override
+	public Mono<Response<ServiceInstance>> choose(Request request) {
+		ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+		return supplier.get(request)
+				.next()
+				.map(instances -> {
+					Response<ServiceInstance> response = select(instances);
+					if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+						callback.selectedServiceInstance(response.getServer());
+					}
+					return response;
+				});
+	}
+
+	Response<ServiceInstance> select(List<ServiceInstance> instances) {
+		statsRegistry.retainOnly(instances);
+		int n = instances.size();
+		if (n == 0) {
+			log.warn("No servers available for service: {}", serviceId);
+			return new EmptyResponse();
+		}
+		if (n == 1) {
+			return new DefaultResponse(instances.get(0));
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int a = random.nextInt(n);
+		int b = random.nextInt(n - 1);
+		if (b >= a) {
+			b++;
+		}
+
+		ServiceInstance first = instances.get(a);
+		ServiceInstance second = instances.get(b);
+		long now = System.nanoTime();
+		double costA = statsRegistry.get(first).cost(now, coldStartNanos, failurePenalty, failureDecayNanos);
+		double costB = statsRegistry.get(second).cost(now, coldStartNanos, failurePenalty, failureDecayNanos);
+
+		return new DefaultResponse(costA <= costB ? first : second);
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.common.trace;
+
+/**
+ * One hop's view of a W3C trace: the shared trace id, this hop's span id and the sampled flag.
+ *
+ * @see <a href="https://www.w3.org/TR/trace-context/">W3C Trace Context</a>
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled) {
+
+	public static final String TRACEPARENT = "traceparent";
+
+	/** Plain trace id header kept for log correlation and clients that already send it. */
+	public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+	public static TraceContext newRoot() {
+		return new TraceContext(TraceIds.newTraceId(), TraceIds.newSpanId(), true);
+	}
+
+	/**
+	 * @return the same trace with a fresh span id, for the next outgoing hop
+	 */
+	public TraceContext child() {
+		return new TraceContext(traceId, TraceIds.newSpanId(), sampled);
+	}
+
+	public String toTraceparent() {
+		return "00-" + traceId + '-' + spanId + (sampled ? "-01" : "-00");
+	}
+
+	/**
+	 * Parses {@code version-traceid-parentid-flags}.
+	 *
+	 * @return null if the header is missing or malformed
+	 */
+	public static TraceContext parse(String traceparent) {
+		if (traceparent == null || traceparent.length() < 55) {
+			return null;
+		}
+		String value = traceparent.trim();
+		if (value.length() < 55 || value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-'
+				|| value.startsWith("ff")) {
+			return null;
+		}
+		// version 00 is exactly 55 chars; later versions may append fields after the flags
+		if (value.startsWith("00") && value.length() != 55) {
+			return null;
+		}
+		String traceId = value.substring(3, 35);
+		String spanId = value.substring(36, 52);
+		if (!TraceIds.isValidHex(traceId, 32) || !TraceIds.isValidHex(spanId, 16)) {
+			return null;
+		}
+		int flags = Character.digit(value.charAt(54), 16);
+		return new TraceContext(traceId, spanId, flags >= 0 && (flags & 1) == 1);
+	}
+
+	/**
+	 * Incoming context from {@code traceparent}, falling back to a bare {@code X-Trace-Id} when it is a valid
+	 * 32-char trace id; otherwise a new root.
+	 */
+	public static TraceContext fromHeaders(String traceparent, String legacyTraceId) {
+		TraceContext parsed = parse(traceparent);
+		if (parsed != null) {
+			return parsed;
+		}
+		if (legacyTraceId != null && TraceIds.isValidHex(legacyTraceId, 32)) {
+			return new TraceContext(legacyTraceId, TraceIds.newSpanId(), true);
+		}
+		return newRoot();
+	}
+}
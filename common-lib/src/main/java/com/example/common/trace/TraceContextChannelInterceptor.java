@@ -0,0 +1,76 @@
+package com.example.common.trace;
+
+import com.example.common.event.EventEnvelope;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Carries the trace across Kafka as a {@code traceparent} message header, which the binder maps to a
+ * record header.
+ * <ul>
+ *     <li>Outbound: adds a child of the current context, or of {@code EventEnvelope.traceId} when the send
+ *     happens off the request thread (batched publishers).</li>
+ *     <li>Inbound: makes the message's context current while the consumer runs on the listener thread.</li>
+ * </ul>
+ */
+public class TraceContextChannelInterceptor implements ChannelInterceptor {
+
+	private final boolean inbound;
+	// previous context per listener thread, restored once the consumer returns
+	private final ThreadLocal<TraceContext> previous = new ThreadLocal<>();
+
+	private TraceContextChannelInterceptor(boolean inbound) {
+		this.inbound = inbound;
+	}
+
+	public static TraceContextChannelInterceptor outbound() {
+		return new TraceContextChannelInterceptor(false);
+	}
+
+	public static TraceContextChannelInterceptor inbound() {
+		return new TraceContextChannelInterceptor(true);
+	}
+
+	@Override
+	public Message<?> preSend(Message<?> message, MessageChannel channel) {
+		return inbound ? extract(message) : inject(message);
+	}
+
+	@Override
+	public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+		if (inbound) {
+			TraceContextHolder.restore(previous.get());
+			previous.remove();
+		}
+	}
+
+	private Message<?> inject(Message<?> message) {
+		if (message.getHeaders().containsKey(TraceContext.TRACEPARENT)) {
+			return message;
+		}
+		TraceContext current = TraceContextHolder.get();
+		if (current == null && message.getPayload() instanceof EventEnvelope<?> envelope && envelope.getTraceId() != null) {
+			current = TraceContext.fromHeaders(null, envelope.getTraceId());
+		}
+		if (current == null) {
+			return message;
+		}
+		return MessageBuilder.fromMessage(message)
+				.setHeader(TraceContext.TRACEPARENT, current.child().toTraceparent())
+				.build();
+	}
+
+	private Message<?> extract(Message<?> message) {
+		Object header = message.getHeaders().get(TraceContext.TRACEPARENT);
+		String traceparent = header instanceof byte[] bytes
+				? new String(bytes, StandardCharsets.US_ASCII)
+				: header != null ? header.toString() : null;
+		TraceContext context = TraceContext.parse(traceparent);
+		previous.set(TraceContextHolder.set(context != null ? context : TraceContext.newRoot()));
+		return message;
+	}
+}
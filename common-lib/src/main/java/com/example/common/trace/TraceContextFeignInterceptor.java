@@ -0,0 +1,21 @@
+package com.example.common.trace;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Continues the current trace on outgoing Feign calls with a new child span.
+ */
+public class TraceContextFeignInterceptor implements RequestInterceptor {
+
+	@Override
+	public void apply(RequestTemplate template) {
+		TraceContext current = TraceContextHolder.get();
+		if (current == null) {
+			return;
+		}
+		TraceContext child = current.child();
+		template.header(TraceContext.TRACEPARENT, child.toTraceparent());
+		template.header(TraceContext.TRACE_ID_HEADER, child.traceId());
+	}
+}
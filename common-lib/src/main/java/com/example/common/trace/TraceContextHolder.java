@@ -0,0 +1,50 @@
+package com.example.common.trace;
+
+import org.slf4j.MDC;
+
+/**
+ * Current thread's {@link TraceContext}, mirrored into the logging MDC as {@code traceId}.
+ * Set by the inbound servlet filter and message interceptor; read by the outbound Feign and message
+ * interceptors and by {@code EventEnvelope}.
+ */
+public final class TraceContextHolder {
+
+	public static final String MDC_KEY = "traceId";
+
+	private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+	private TraceContextHolder() {
+	}
+
+	public static TraceContext get() {
+		return CURRENT.get();
+	}
+
+	public static String currentTraceId() {
+		TraceContext context = CURRENT.get();
+		return context != null ? context.traceId() : null;
+	}
+
+	/**
+	 * @return the previous context, to be passed back to {@link #restore} when the scope ends
+	 */
+	public static TraceContext set(TraceContext context) {
+		TraceContext previous = CURRENT.get();
+		apply(context);
+		return previous;
+	}
+
+	public static void restore(TraceContext previous) {
+		apply(previous);
+	}
+
+	private static void apply(TraceContext context) {
+		if (context == null) {
+			CURRENT.remove();
+			MDC.remove(MDC_KEY);
+		} else {
+			CURRENT.set(context);
+			MDC.put(MDC_KEY, context.traceId());
+		}
+	}
+}
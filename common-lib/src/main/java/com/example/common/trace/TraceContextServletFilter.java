@@ -0,0 +1,34 @@
+package com.example.common.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Extracts the caller's trace context for the duration of a servlet request and echoes the trace id
+ * on the response.
+ */
+public class TraceContextServletFilter extends OncePerRequestFilter {
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request,
+									HttpServletResponse response,
+									FilterChain filterChain) throws ServletException, IOException {
+
+		TraceContext context = TraceContext.fromHeaders(
+				request.getHeader(TraceContext.TRACEPARENT),
+				request.getHeader(TraceContext.TRACE_ID_HEADER));
+		response.setHeader(TraceContext.TRACE_ID_HEADER, context.traceId());
+
+		TraceContext previous = TraceContextHolder.set(context);
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			TraceContextHolder.restore(previous);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.example.common.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C trace-context identifiers from {@link ThreadLocalRandom}: 128-bit trace ids and 64-bit span ids,
+ * hex-encoded straight into a char array. Unlike {@code UUID.randomUUID()} there is no SecureRandom
+ * call, no lock and no intermediate objects. Ids only need to be unique, not unpredictable.
+ */
+public final class TraceIds {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private TraceIds() {
+	}
+
+	/**
+	 * @return 32 lowercase hex chars, never all zero
+	 */
+	public static String newTraceId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long high = random.nextLong();
+		long low = nonZero(random.nextLong());
+		char[] chars = new char[32];
+		writeHex(high, chars, 0);
+		writeHex(low, chars, 16);
+		return new String(chars);
+	}
+
+	/**
+	 * @return 16 lowercase hex chars, never all zero
+	 */
+	public static String newSpanId() {
+		char[] chars = new char[16];
+		writeHex(nonZero(ThreadLocalRandom.current().nextLong()), chars, 0);
+		return new String(chars);
+	}
+
+	static boolean isValidHex(String value, int length) {
+		if (value == null || value.length() != length) {
+			return false;
+		}
+		boolean nonZero = false;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+				return false;
+			}
+			nonZero |= c != '0';
+		}
+		return nonZero;
+	}
+
+	private static long nonZero(long value) {
+		return value != 0 ? value : 1;
+	}
+
+	private static void writeHex(long value, char[] dest, int offset) {
+		for (int i = 15; i >= 0; i--) {
+			dest[offset + i] = HEX[(int) (value & 0xF)];
+			value >>>= 4;
+		}
+	}
+}
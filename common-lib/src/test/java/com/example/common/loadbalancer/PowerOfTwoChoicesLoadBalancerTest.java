@@ -0,0 +1,109 @@
+package com.example.common.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PowerOfTwoChoicesLoadBalancerTest {
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final InstanceStatsRegistry registry = new InstanceStatsRegistry(TimeUnit.SECONDS.toNanos(10));
+	private final LatencyTrackingLoadBalancerLifecycle lifecycle = new LatencyTrackingLoadBalancerLifecycle(registry);
+	@SuppressWarnings("unchecked")
+	private final PowerOfTwoChoicesLoadBalancer balancer = new PowerOfTwoChoicesLoadBalancer("inventory-service",
+			mock(ObjectProvider.class), registry, 5 * MS, 10.0, TimeUnit.SECONDS.toNanos(5));
+
+	/**
+	 * Closed-loop simulation: a fixed number of concurrent callers, each sending its next request as soon as
+	 * the previous one returns. One of three instances is ten times slower; the balancer should starve it.
+	 */
+	@Test
+	void steersAwayFromTheSlowInstance() {
+		List<ServiceInstance> instances = List.of(instance("a"), instance("b"), instance("slow"));
+		Map<String, Long> latency = Map.of("a", 10 * MS, "b", 10 * MS, "slow", 100 * MS);
+		Map<String, Integer> picks = new HashMap<>();
+
+		// completion time -> the call finishing then; the clock is simulated, the stats only see latencies
+		PriorityQueue<Call> pending = new PriorityQueue<>((x, y) -> Long.compare(x.doneAt, y.doneAt));
+		long now = 0;
+		for (int caller = 0; caller < 8; caller++) {
+			pending.add(send(instances, latency, picks, now));
+		}
+		for (int i = 0; i < 5_000; i++) {
+			Call done = pending.poll();
+			now = done.doneAt;
+			registry.get(done.instance).onComplete(done.latency, false, now);
+			pending.add(send(instances, latency, picks, now));
+		}
+
+		int total = picks.values().stream().mapToInt(Integer::intValue).sum();
+		assertThat(picks.get("slow")).isLessThan(total / 10);
+		assertThat(picks.get("a")).isGreaterThan(total / 3);
+		assertThat(picks.get("b")).isGreaterThan(total / 3);
+	}
+
+	@Test
+	void discardedCallReleasesItsInFlightSlot() {
+		ServiceInstance instance = instance("a");
+		Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+		Response<ServiceInstance> response = new DefaultResponse(instance);
+
+		lifecycle.onStartRequest(request, response);
+		assertThat(registry.get(instance).getInFlight()).isEqualTo(1);
+
+		lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.DISCARD, request, response));
+		assertThat(registry.get(instance).getInFlight()).isZero();
+		assertThat(registry.get(instance).getEwmaMillis()).isZero();
+	}
+
+	@Test
+	void evictsInstancesThatLeaveDiscovery() {
+		ServiceInstance a = instance("a");
+		ServiceInstance gone = instance("gone");
+		Response<ServiceInstance> response = new DefaultResponse(gone);
+		Request<Object> request = new DefaultRequest<>();
+
+		balancer.select(List.of(a, gone));
+		lifecycle.onStartRequest(request, response);
+		assertThat(registry.size()).isEqualTo(2);
+
+		balancer.select(List.of(a));
+		assertThat(registry.size()).isEqualTo(1);
+
+		// the call that was in flight on the departed instance finishes later; it must not recreate its entry
+		lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+		assertThat(registry.find(gone)).isNull();
+	}
+
+	private Call send(List<ServiceInstance> instances, Map<String, Long> latency, Map<String, Integer> picks, long now) {
+		ServiceInstance chosen = balancer.select(instances).getServer();
+		registry.get(chosen).onStart();
+		picks.merge(chosen.getInstanceId(), 1, Integer::sum);
+		long took = latency.get(chosen.getInstanceId());
+		return new Call(chosen, took, now + took);
+	}
+
+	private static ServiceInstance instance(String id) {
+		return new DefaultServiceInstance(id, "inventory-service", id + ".local", 8080, false);
+	}
+
+	private record Call(ServiceInstance instance, long latency, long doneAt) {
+	}
+}
@@ -24,6 +24,7 @@ public class InventoryEvent {
 	private Long itemId;
 	private String itemName;
 	private Integer quantityChange;
+	private Long ownerUserId;     // lets consumers (e.g. the gateway cache) scope per-owner views
 
 	private String source;        // for example "inventory-service"
 	private String reason;        // for example "CREATE", "UPDATE", "RESERVE", etc
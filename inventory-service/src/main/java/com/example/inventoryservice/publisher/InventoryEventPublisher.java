@@ -62,12 +62,13 @@ public class InventoryEventPublisher {
 		streamBridge.send("inventory-events-out-0", event);
 	}
 
-	public void publishItemDeleted(Long itemId, String itemName) {
+	public void publishItemDeleted(Long itemId, String itemName, Long ownerUserId) {
 		InventoryEvent event = InventoryEvent.builder()
 				.eventId(UUID.randomUUID().toString())
 				.eventType(InventoryEventType.ITEM_DELETED)
 				.itemId(itemId)
 				.itemName(itemName)
+				.ownerUserId(ownerUserId)
 				.source("inventory-service")
 				.reason("DELETE")
 				.createdAt(Instant.now())
@@ -81,6 +82,7 @@ public class InventoryEventPublisher {
 				.eventId(UUID.randomUUID().toString())
 				.itemId(item.getId())
 				.itemName(item.getName())
+				.ownerUserId(item.getOwnerUserId())
 				.source("inventory-service")
 				.createdAt(Instant.now());
 	}
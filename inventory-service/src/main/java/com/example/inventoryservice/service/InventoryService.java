@@ -118,6 +118,6 @@ public class InventoryService {
         repository.delete(item);
 
         // Publish domain event with id and name for traceability.
-        eventPublisher.publishItemDeleted(item.getId(), item.getName());
+        eventPublisher.publishItemDeleted(item.getId(), item.getName(), item.getOwnerUserId());
     }
 }
\ No newline at end of file
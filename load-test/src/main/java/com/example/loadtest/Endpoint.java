@@ -0,0 +1,22 @@
+package com.example.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * One kind of request in the workload. {@code next} builds the next call from {@link Fixtures}, or
+ * returns null when the fixtures cannot supply one yet (counted as skipped).
+ */
+record Endpoint(String name, Supplier<Call> next) {
+
+	/**
+	 * @param onResponse feeds the status and body back into the fixtures (new tokens, created ids)
+	 */
+	record Call(HttpRequest request, BiConsumer<Integer, byte[]> onResponse) {
+
+		static Call of(HttpRequest request) {
+			return request == null ? null : new Call(request, (status, body) -> { });
+		}
+	}
+}
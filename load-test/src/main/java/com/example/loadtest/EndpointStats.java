@@ -0,0 +1,62 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency (microseconds, from the scheduled send time) and outcome counts for one endpoint.
+ * {@link #reset()} discards everything recorded so far, which is how the warm-up is dropped.
+ */
+final class EndpointStats {
+
+	private static final long MAX_LATENCY_MICROS = 60_000_000;
+
+	private final Recorder latency = new Recorder(1, MAX_LATENCY_MICROS, 3);
+	private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+
+	void completed(int status, long latencyMicros) {
+		latency.recordValue(Math.min(Math.max(latencyMicros, 1), MAX_LATENCY_MICROS));
+		statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+	}
+
+	void failed() {
+		errors.increment();
+	}
+
+	void dropped() {
+		dropped.increment();
+	}
+
+	void skipped() {
+		skipped.increment();
+	}
+
+	void reset() {
+		latency.getIntervalHistogram();
+		statuses.clear();
+		errors.reset();
+		dropped.reset();
+		skipped.reset();
+	}
+
+	Snapshot snapshot() {
+		Map<Integer, Long> byStatus = new TreeMap<>();
+		statuses.forEach((status, count) -> byStatus.put(status, count.sum()));
+		return new Snapshot(latency.getIntervalHistogram(), byStatus, errors.sum(), dropped.sum(), skipped.sum());
+	}
+
+	record Snapshot(Histogram latency, Map<Integer, Long> statuses, long errors, long dropped, long skipped) {
+
+		long completed() {
+			return latency.getTotalCount();
+		}
+	}
+}
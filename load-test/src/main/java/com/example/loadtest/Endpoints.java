@@ -0,0 +1,128 @@
+package com.example.loadtest;
+
+import com.example.loadtest.Endpoint.Call;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.net.http.HttpRequest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The workload's endpoints, all sent through the gateway on the external paths clients use.
+ * Names match the {@code load.rate.*} keys.
+ */
+final class Endpoints {
+
+	private Endpoints() {
+	}
+
+	static List<Endpoint> all(Fixtures fx) {
+		return List.of(
+				new Endpoint("auth.login", () -> {
+					Fixtures.Account account = fx.randomAccount();
+					return Call.of(Fixtures.post(fx.gateway, "/auth/api/auth/login",
+							fx.json(Map.of("email", account.email, "password", Fixtures.PASSWORD))).build());
+				}),
+
+				new Endpoint("auth.refresh", () -> {
+					Fixtures.Account account = fx.randomAccount();
+					// a second refresh with the same token would lose the rotation race and be rejected
+					if (!account.tryLeaseRefresh()) {
+						return null;
+					}
+					HttpRequest request = Fixtures.post(fx.gateway, "/auth/api/auth/refresh",
+							fx.json(Map.of("refreshToken", account.refreshToken))).build();
+					// refresh tokens rotate, so the account's pair is replaced on success
+					return new Call(request, (status, body) -> {
+						if (status == 200) {
+							JsonNode tokens = fx.read(body);
+							account.accessToken = tokens.path("accessToken").asText();
+							account.refreshToken = tokens.path("refreshToken").asText();
+						}
+						account.releaseRefresh();
+					});
+				}),
+
+				new Endpoint("user.get", () -> {
+					Fixtures.Account account = fx.randomAccount();
+					return Call.of(Fixtures.get(fx.gateway, "/users/api/users/" + account.userId, account.accessToken).build());
+				}),
+
+				new Endpoint("user.update", () -> {
+					Fixtures.Account account = fx.randomAccount();
+					return Call.of(authorized(fx, account, "/users/api/users/" + account.userId)
+							.PUT(HttpRequest.BodyPublishers.ofByteArray(fx.json(Map.of(
+									"fullName", "Load Test " + ThreadLocalRandom.current().nextInt(1_000_000)))))
+							.build());
+				}),
+
+				new Endpoint("inventory.create", () -> {
+					Fixtures.Account account = fx.randomAccount();
+					HttpRequest request = authorized(fx, account, "/inventory/api/inventory")
+							.POST(HttpRequest.BodyPublishers.ofByteArray(fx.json(itemBody(account.userId, true))))
+							.build();
+					return new Call(request, (status, body) -> {
+						if (status == 201) {
+							fx.itemCreated(fx.read(body).path("id").asLong());
+						}
+					});
+				}),
+
+				new Endpoint("inventory.get", () -> {
+					long id = fx.randomItem();
+					return id == 0 ? null : Call.of(
+							Fixtures.get(fx.gateway, "/inventory/api/inventory/" + id, fx.randomAccount().accessToken).build());
+				}),
+
+				new Endpoint("inventory.list", () -> {
+					Fixtures.Account account = fx.randomAccount();
+					return Call.of(Fixtures.get(fx.gateway, "/inventory/api/inventory/user/" + account.userId, account.accessToken).build());
+				}),
+
+				new Endpoint("inventory.update", () -> {
+					long id = fx.randomItem();
+					return id == 0 ? null : Call.of(authorized(fx, fx.randomAccount(), "/inventory/api/inventory/" + id)
+							.PUT(HttpRequest.BodyPublishers.ofByteArray(fx.json(itemBody(0, false))))
+							.build());
+				}),
+
+				new Endpoint("inventory.delete", () -> {
+					Long id = fx.takeItemForDelete();
+					return id == null ? null : Call.of(authorized(fx, fx.randomAccount(), "/inventory/api/inventory/" + id)
+							.DELETE()
+							.build());
+				}),
+
+				new Endpoint("qr.generate", () -> Call.of(authorized(fx, fx.randomAccount(), "/qr/api/qr/generate")
+						.POST(HttpRequest.BodyPublishers.ofByteArray(fx.json(Map.of(
+								"payload", "item-" + ThreadLocalRandom.current().nextInt(1_000_000),
+								"type", "TEXT",
+								"size", 256))))
+						.build())),
+
+				new Endpoint("qr.decode", () -> Call.of(authorized(fx, fx.randomAccount(), "/qr/api/qr/decode")
+						.POST(HttpRequest.BodyPublishers.ofByteArray(fx.json(Map.of("imageBase64", fx.qrImageBase64))))
+						.build())));
+	}
+
+	private static HttpRequest.Builder authorized(Fixtures fx, Fixtures.Account account, String path) {
+		return HttpRequest.newBuilder(fx.gateway.resolve(path))
+				.header("Authorization", "Bearer " + account.accessToken)
+				.header("Content-Type", "application/json");
+	}
+
+	private static Map<String, Object> itemBody(long ownerUserId, boolean withOwner) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Map<String, Object> body = new HashMap<>();
+		body.put("name", "item-" + random.nextInt(1_000_000));
+		body.put("quantity", random.nextInt(1, 100));
+		body.put("unitPrice", BigDecimal.valueOf(random.nextInt(100, 10_000), 2));
+		if (withOwner) {
+			body.put("ownerUserId", ownerUserId);
+		}
+		return body;
+	}
+}
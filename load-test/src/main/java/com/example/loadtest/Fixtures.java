@@ -0,0 +1,216 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.qrcode.QRCodeWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * State shared by the endpoints: registered accounts with their current tokens, recently created
+ * inventory item ids and a QR image to decode. Created once before the warm-up, through the gateway.
+ */
+@Slf4j
+final class Fixtures {
+
+	static final String PASSWORD = "load-test-password";
+	private static final int ITEM_RING_SIZE = 4096;
+	private static final int SEED_ATTEMPTS = 5;
+	private static final long REFRESH_LEASE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+	final URI gateway;
+	final ObjectMapper objectMapper;
+	final List<Account> accounts;
+	final String qrImageBase64;
+
+	// reads pick from a ring of recently created ids; deletes take the oldest ids not yet deleted
+	private final AtomicLongArray itemRing = new AtomicLongArray(ITEM_RING_SIZE);
+	private final AtomicLong itemCount = new AtomicLong();
+	private final Queue<Long> deletable = new ConcurrentLinkedQueue<>();
+
+	private Fixtures(URI gateway, ObjectMapper objectMapper, List<Account> accounts, String qrImageBase64) {
+		this.gateway = gateway;
+		this.objectMapper = objectMapper;
+		this.accounts = accounts;
+		this.qrImageBase64 = qrImageBase64;
+	}
+
+	static Fixtures seed(HttpClient client, URI gateway, ObjectMapper objectMapper, int accountCount) {
+		String run = Long.toString(System.currentTimeMillis(), 36);
+		// one at a time: auth-service hashes passwords on a CPU-sized pool and sheds a burst with 429/503
+		List<Account> accounts = new ArrayList<>();
+		for (int i = 0; i < accountCount; i++) {
+			String email = "load-" + run + "-" + i + "@example.com";
+			byte[] body = json(objectMapper, Map.of(
+					"username", "load-" + run + "-" + i,
+					"email", email,
+					"fullName", "Load Test " + i,
+					"password", PASSWORD));
+			HttpRequest request = post(gateway, "/auth/api/auth/register", body).build();
+			JsonNode tokens = read(objectMapper, expect(sendWithRetry(client, request), 201, "register"));
+			accounts.add(new Account(email, tokens.path("accessToken").asText(), tokens.path("refreshToken").asText()));
+		}
+
+		// profile ids live in user-service, keyed by the email auth-service registered them with
+		HttpResponse<byte[]> users = client.sendAsync(
+				get(gateway, "/users/api/users", accounts.get(0).accessToken).build(),
+				HttpResponse.BodyHandlers.ofByteArray()).join();
+		Map<String, Long> idsByEmail = new HashMap<>();
+		for (JsonNode user : read(objectMapper, expect(users, 200, "list users"))) {
+			idsByEmail.put(user.path("email").asText(), user.path("id").asLong());
+		}
+		for (Account account : accounts) {
+			Long id = idsByEmail.get(account.email);
+			if (id == null) {
+				throw new IllegalStateException("No user-service profile for " + account.email);
+			}
+			account.userId = id;
+		}
+
+		log.info("Seeded {} accounts", accounts.size());
+		return new Fixtures(gateway, objectMapper, accounts, qrImage("load-test"));
+	}
+
+	Account randomAccount() {
+		return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+	}
+
+	void itemCreated(long id) {
+		itemRing.set((int) (itemCount.getAndIncrement() % ITEM_RING_SIZE), id);
+		deletable.offer(id);
+	}
+
+	/**
+	 * @return a recently created item id, or 0 if none exists yet
+	 */
+	long randomItem() {
+		long count = Math.min(itemCount.get(), ITEM_RING_SIZE);
+		return count == 0 ? 0 : itemRing.get(ThreadLocalRandom.current().nextInt((int) count));
+	}
+
+	Long takeItemForDelete() {
+		return deletable.poll();
+	}
+
+	byte[] json(Object body) {
+		return json(objectMapper, body);
+	}
+
+	JsonNode read(byte[] body) {
+		return read(objectMapper, body);
+	}
+
+	static HttpRequest.Builder get(URI gateway, String path, String accessToken) {
+		return HttpRequest.newBuilder(gateway.resolve(path))
+				.header("Authorization", "Bearer " + accessToken)
+				.GET();
+	}
+
+	static HttpRequest.Builder post(URI gateway, String path, byte[] body) {
+		return HttpRequest.newBuilder(gateway.resolve(path))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body));
+	}
+
+	private static HttpResponse<byte[]> sendWithRetry(HttpClient client, HttpRequest request) {
+		for (int attempt = 1; ; attempt++) {
+			HttpResponse<byte[]> response = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).join();
+			boolean overloaded = response.statusCode() == 429 || response.statusCode() == 503;
+			if (!overloaded || attempt == SEED_ATTEMPTS) {
+				return response;
+			}
+			long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+			log.info("Seeding: {} returned {}, retrying in {}s", request.uri().getPath(), response.statusCode(), retryAfter);
+			try {
+				Thread.sleep(Duration.ofSeconds(retryAfter));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return response;
+			}
+		}
+	}
+
+	private static byte[] expect(HttpResponse<byte[]> response, int status, String what) {
+		if (response.statusCode() != status) {
+			throw new IllegalStateException("Seeding failed: " + what + " returned " + response.statusCode()
+					+ " " + new String(response.body()));
+		}
+		return response.body();
+	}
+
+	private static byte[] json(ObjectMapper objectMapper, Object body) {
+		try {
+			return objectMapper.writeValueAsBytes(body);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static JsonNode read(ObjectMapper objectMapper, byte[] body) {
+		try {
+			return objectMapper.readTree(body);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	// rendered locally so decode load does not depend on generate succeeding
+	private static String qrImage(String payload) {
+		try {
+			ByteArrayOutputStream png = new ByteArrayOutputStream();
+			MatrixToImageWriter.writeToStream(new QRCodeWriter().encode(payload, BarcodeFormat.QR_CODE, 256, 256), "PNG", png);
+			return Base64.getEncoder().encodeToString(png.toByteArray());
+		} catch (WriterException | IOException ex) {
+			throw new IllegalStateException("Cannot render QR fixture", ex);
+		}
+	}
+
+	static final class Account {
+
+		final String email;
+		volatile String accessToken;
+		volatile String refreshToken;
+		volatile long userId;
+
+		// nanoTime until which a refresh holds the account's token; expires on its own if the call never completes
+		private final AtomicLong refreshLease = new AtomicLong(System.nanoTime());
+
+		Account(String email, String accessToken, String refreshToken) {
+			this.email = email;
+			this.accessToken = accessToken;
+			this.refreshToken = refreshToken;
+		}
+
+		boolean tryLeaseRefresh() {
+			long now = System.nanoTime();
+			long lease = refreshLease.get();
+			return now - lease >= 0 && refreshLease.compareAndSet(lease, now + REFRESH_LEASE_NANOS);
+		}
+
+		void releaseRefresh() {
+			refreshLease.set(System.nanoTime());
+		}
+	}
+}
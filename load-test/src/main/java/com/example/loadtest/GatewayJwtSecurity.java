@@ -0,0 +1,50 @@
+package com.example.loadtest;
+
+import com.example.commonlib.security.autoconfigure.SecuritySharedProperties;
+import com.example.commonlib.security.autoconfigure.ServletResourceServerAutoConfiguration;
+import com.example.commonlib.security.identity.InternalIdentityCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Replaces the HTTP Basic chain of inventory-service and qr-service with security-lib's resource-server
+ * chain, the one user-service runs. With it, the gateway's bearer token and signed identity header are
+ * accepted and the load reaches the controllers instead of stopping at 401.
+ * <p>
+ * The services' own {@code securityFilterChain} bean is removed rather than outranked, because Spring
+ * Security refuses a second chain behind one that already matches every request.
+ */
+@Configuration(proxyBeanMethods = false)
+class GatewayJwtSecurity {
+
+	private static final String SERVICE_CHAIN = "securityFilterChain";
+
+	@Bean
+	static BeanDefinitionRegistryPostProcessor removeServiceSecurityChain() {
+		return new BeanDefinitionRegistryPostProcessor() {
+			@Override
+			public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+				if (registry.containsBeanDefinition(SERVICE_CHAIN)) {
+					registry.removeBeanDefinition(SERVICE_CHAIN);
+				}
+			}
+		};
+	}
+
+	@Bean
+	SecurityFilterChain gatewayJwtSecurityFilterChain(HttpSecurity http,
+													  SecuritySharedProperties properties,
+													  Converter<Jwt, ? extends AbstractAuthenticationToken> jwtAuthConverterServlet,
+													  ObjectProvider<InternalIdentityCodec> internalIdentityCodec) throws Exception {
+		return new ServletResourceServerAutoConfiguration()
+				.securityFilterChain(http, properties, jwtAuthConverterServlet, internalIdentityCodec);
+	}
+}
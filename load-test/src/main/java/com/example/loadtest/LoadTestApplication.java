@@ -0,0 +1,97 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Boots the whole stack in this JVM, seeds accounts, then drives the configured open-model workload
+ * through the gateway and prints throughput and latency percentiles per endpoint.
+ *
+ * <pre>
+ * mvn -P load-test -pl load-test -am -DskipTests compile exec:java -Dload.duration=2m -Dload.rate.user.get=500
+ * </pre>
+ */
+@Slf4j
+public final class LoadTestApplication {
+
+	private LoadTestApplication() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Workload workload = Workload.load();
+		log.info("Workload: duration={} warmup={} accounts={} rates={}",
+				workload.duration(), workload.warmup(), workload.accounts(), workload.rates());
+
+		try (StackLauncher stack = StackLauncher.start(workload.configRepo());
+			 HttpClient client = HttpClient.newBuilder()
+					 .version(HttpClient.Version.HTTP_1_1)
+					 .connectTimeout(Duration.ofSeconds(5))
+					 .executor(Executors.newVirtualThreadPerTaskExecutor())
+					 .build()) {
+
+			Fixtures fixtures = Fixtures.seed(client, stack.gatewayUri(), new ObjectMapper(), workload.accounts());
+
+			Map<Endpoint, Double> rates = new LinkedHashMap<>();
+			for (Endpoint endpoint : Endpoints.all(fixtures)) {
+				Double rate = workload.rates().get(endpoint.name());
+				if (rate != null) {
+					rates.put(endpoint, rate);
+				}
+			}
+			workload.rates().keySet().stream()
+					.filter(name -> rates.keySet().stream().noneMatch(endpoint -> endpoint.name().equals(name)))
+					.forEach(name -> log.warn("Ignoring rate for unknown endpoint {}", name));
+			OpenLoadGenerator generator = new OpenLoadGenerator(client, rates, workload.maxInFlight());
+
+			log.info("Warming up for {}", workload.warmup());
+			generator.run(workload.warmup());
+			generator.reset();
+
+			log.info("Measuring for {}", workload.duration());
+			generator.run(workload.duration());
+			print(generator.snapshot(), rates, workload.duration());
+		}
+	}
+
+	private static void print(Map<String, EndpointStats.Snapshot> results, Map<Endpoint, Double> rates, Duration duration) {
+		Map<String, Double> targets = new LinkedHashMap<>();
+		rates.forEach((endpoint, rate) -> targets.put(endpoint.name(), rate));
+		double seconds = duration.toMillis() / 1000.0;
+
+		String header = String.format("%-18s %8s %8s %9s %8s %8s %8s %8s %8s %9s  %s",
+				"endpoint", "target/s", "done/s", "completed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+				"err/drop", "statuses");
+		StringBuilder report = new StringBuilder(System.lineSeparator()).append(header).append(System.lineSeparator());
+		report.append("-".repeat(header.length())).append(System.lineSeparator());
+		results.forEach((name, result) -> {
+			Histogram latency = result.latency();
+			report.append(String.format("%-18s %8.1f %8.1f %9d %8.2f %8.2f %8.2f %8.2f %8.2f %4d/%-4d  %s%s",
+					name,
+					targets.get(name),
+					result.completed() / seconds,
+					result.completed(),
+					millis(latency, 50),
+					millis(latency, 90),
+					millis(latency, 99),
+					millis(latency, 99.9),
+					latency.getMaxValue() / 1000.0,
+					result.errors(),
+					result.dropped(),
+					result.statuses(),
+					result.skipped() > 0 ? " skipped=" + result.skipped() : ""));
+			report.append(System.lineSeparator());
+		});
+		System.out.println(report);
+	}
+
+	private static double millis(Histogram latency, double percentile) {
+		return latency.getValueAtPercentile(percentile) / 1000.0;
+	}
+}
@@ -0,0 +1,113 @@
+package com.example.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: each endpoint has its own sender thread issuing requests at a fixed arrival rate,
+ * whether or not earlier requests have completed. Latency is measured from the scheduled send time, not the
+ * actual one, so a stalled system is charged for the queueing it causes (no coordinated omission).
+ * <p>
+ * In-flight requests are capped; arrivals over the cap are counted as dropped rather than delayed.
+ */
+@Slf4j
+final class OpenLoadGenerator {
+
+	private final HttpClient client;
+	private final Map<Endpoint, Double> rates;
+	private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+	private final Semaphore inFlight;
+	private final int maxInFlight;
+
+	OpenLoadGenerator(HttpClient client, Map<Endpoint, Double> rates, int maxInFlight) {
+		this.client = client;
+		this.rates = rates;
+		this.maxInFlight = maxInFlight;
+		this.inFlight = new Semaphore(maxInFlight);
+		rates.keySet().forEach(endpoint -> stats.put(endpoint.name(), new EndpointStats()));
+	}
+
+	/**
+	 * Runs all endpoints for {@code phase}, then waits for outstanding requests to finish.
+	 */
+	void run(Duration phase) throws InterruptedException {
+		long start = System.nanoTime();
+		long end = start + phase.toNanos();
+		List<Thread> senders = new ArrayList<>();
+		rates.forEach((endpoint, rate) -> senders.add(Thread.ofPlatform()
+				.name("load-" + endpoint.name())
+				.daemon()
+				.start(() -> send(endpoint, (long) (1_000_000_000L / rate), start, end))));
+		for (Thread sender : senders) {
+			sender.join();
+		}
+
+		if (inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS)) {
+			inFlight.release(maxInFlight);
+		} else {
+			log.warn("{} requests still outstanding after 30s", maxInFlight - inFlight.availablePermits());
+		}
+	}
+
+	void reset() {
+		stats.values().forEach(EndpointStats::reset);
+	}
+
+	Map<String, EndpointStats.Snapshot> snapshot() {
+		Map<String, EndpointStats.Snapshot> snapshot = new LinkedHashMap<>();
+		stats.forEach((name, endpointStats) -> snapshot.put(name, endpointStats.snapshot()));
+		return snapshot;
+	}
+
+	private void send(Endpoint endpoint, long intervalNanos, long start, long end) {
+		EndpointStats endpointStats = stats.get(endpoint.name());
+		for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+			long wait = scheduled - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+
+			Endpoint.Call call;
+			try {
+				call = endpoint.next().get();
+			} catch (RuntimeException ex) {
+				endpointStats.failed();
+				continue;
+			}
+			if (call == null) {
+				endpointStats.skipped();
+				continue;
+			}
+			if (!inFlight.tryAcquire()) {
+				endpointStats.dropped();
+				continue;
+			}
+
+			long scheduledAt = scheduled;
+			client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofByteArray())
+					.whenComplete((response, ex) -> {
+						inFlight.release();
+						if (ex != null) {
+							endpointStats.failed();
+							return;
+						}
+						endpointStats.completed(response.statusCode(), (System.nanoTime() - scheduledAt) / 1_000);
+						try {
+							call.onResponse().accept(response.statusCode(), response.body());
+						} catch (RuntimeException callbackError) {
+							log.debug("{} response handling failed: {}", endpoint.name(), callbackError.toString());
+						}
+					});
+		}
+	}
+}
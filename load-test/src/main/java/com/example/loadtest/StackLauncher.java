@@ -0,0 +1,183 @@
+package com.example.loadtest;
+
+import com.example.authservice.AuthServiceApplication;
+import com.example.gateway.ApiGatewayApplication;
+import com.example.inventoryservice.InventoryServiceApplication;
+import com.example.qrservice.QrServiceApplication;
+import com.example.userservice.UserServiceApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the services and the gateway as separate application contexts in this JVM, each on its own
+ * free port. They are configured from config-repo exactly as in a real deployment, with these overrides:
+ * <ul>
+ *   <li>H2 in-memory databases (one per service) instead of MySQL</li>
+ *   <li>spring-cloud-stream's in-memory {@code integration} binder instead of Kafka. Events stay within
+ *       the context that sent them, so cross-service cache invalidation and push do not fire.</li>
+ *   <li>static discovery ({@code spring.cloud.discovery.client.simple}) instead of Eureka, and no config server</li>
+ *   <li>the gateway lets {@code /auth/api/auth/**} through unauthenticated, as the docker profile does</li>
+ *   <li>inventory-service and qr-service accept the gateway's JWT ({@link GatewayJwtSecurity}) instead of HTTP Basic</li>
+ * </ul>
+ * Overrides are passed as command-line arguments so they win over the config-repo files.
+ */
+@Slf4j
+final class StackLauncher implements AutoCloseable {
+
+	// auth-service issues the tokens and brings its own chain; keep security-lib's away from it
+	private static final String SECURITY_LIB_AUTOCONFIG = String.join(",",
+			"com.example.commonlib.security.autoconfigure.PropertiesAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.MethodSecurityAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.JwtDecoderAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.JwtAuthoritiesAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.ServletCorsAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.ReactiveCorsAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.ServletResourceServerAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.ReactiveResourceServerAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.ReactiveJwtDecoderAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.InternalIdentityAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.JwtCacheAutoConfiguration",
+			"com.example.commonlib.security.autoconfigure.TokenRevocationAutoConfiguration");
+
+	// the gateway jar shares this classpath; its auto-configuration only works in the reactive context
+	private static final String GATEWAY_AUTOCONFIG = String.join(",",
+			"org.springframework.cloud.gateway.config.GatewayClassPathWarningAutoConfiguration",
+			"org.springframework.cloud.gateway.config.GatewayAutoConfiguration",
+			"org.springframework.cloud.gateway.config.GatewayResilience4JCircuitBreakerAutoConfiguration",
+			"org.springframework.cloud.gateway.config.GatewayNoLoadBalancerClientAutoConfiguration",
+			"org.springframework.cloud.gateway.config.GatewayFunctionAutoConfiguration",
+			"org.springframework.cloud.gateway.config.GatewayMetricsAutoConfiguration",
+			"org.springframework.cloud.gateway.config.GatewayRedisAutoConfiguration",
+			"org.springframework.cloud.gateway.config.GatewayStreamAutoConfiguration",
+			"org.springframework.cloud.gateway.discovery.GatewayDiscoveryClientAutoConfiguration",
+			"org.springframework.cloud.gateway.config.SimpleUrlHandlerMappingGlobalCorsAutoConfiguration",
+			"org.springframework.cloud.gateway.config.GatewayReactiveLoadBalancerClientAutoConfiguration",
+			"org.springframework.cloud.gateway.config.LocalResponseCacheAutoConfiguration");
+
+	// JPA is on the shared classpath too; the gateway has no database
+	private static final String DATABASE_AUTOCONFIG = String.join(",",
+			"org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+			"org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration");
+
+	private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+	private final Map<String, Integer> ports = new LinkedHashMap<>();
+	private final Path configRepo;
+
+	private StackLauncher(Path configRepo) {
+		this.configRepo = configRepo;
+		for (String service : List.of("user-service", "inventory-service", "qr-service", "auth-service", "api-gateway")) {
+			ports.put(service, freePort());
+		}
+	}
+
+	static StackLauncher start(Path configRepo) {
+		StackLauncher stack = new StackLauncher(configRepo);
+		try {
+			// auth-service calls user-service on register, the gateway needs every service; start leaves first
+			stack.boot("user-service", UserServiceApplication.class, WebApplicationType.SERVLET, true, Security.SECURITY_LIB);
+			stack.boot("inventory-service", InventoryServiceApplication.class, WebApplicationType.SERVLET, true, Security.GATEWAY_JWT);
+			stack.boot("qr-service", QrServiceApplication.class, WebApplicationType.SERVLET, true, Security.GATEWAY_JWT);
+			stack.boot("auth-service", AuthServiceApplication.class, WebApplicationType.SERVLET, true, Security.OWN);
+			stack.boot("api-gateway", ApiGatewayApplication.class, WebApplicationType.REACTIVE, false, Security.SECURITY_LIB);
+		} catch (RuntimeException ex) {
+			stack.close();
+			throw ex;
+		}
+		return stack;
+	}
+
+	URI gatewayUri() {
+		return URI.create("http://localhost:" + ports.get("api-gateway"));
+	}
+
+	private void boot(String service, Class<?> application, WebApplicationType type, boolean database, Security security) {
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.config.location=file:" + configRepo + "/",
+				"--spring.config.name=application," + service,
+				"--spring.cloud.config.enabled=false",
+				"--spring.main.banner-mode=off",
+				"--server.port=" + ports.get(service),
+				"--eureka.client.enabled=false",
+				"--spring.cloud.stream.default-binder=integration",
+				"--logging.level.root=WARN",
+				"--logging.level.com.example.loadtest=INFO"));
+		ports.forEach((id, port) ->
+				args.add("--spring.cloud.discovery.client.simple.instances." + id + "[0].uri=http://localhost:" + port));
+		if (database) {
+			args.addAll(List.of(
+					"--spring.datasource.url=jdbc:h2:mem:" + service + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+					"--spring.datasource.driver-class-name=org.h2.Driver",
+					"--spring.datasource.username=sa",
+					"--spring.datasource.password=",
+					"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+					"--spring.jpa.properties.hibernate.format_sql=false"));
+		}
+		List<String> excluded = new ArrayList<>();
+		if (type == WebApplicationType.SERVLET) {
+			excluded.add(GATEWAY_AUTOCONFIG);
+		}
+		if (!database) {
+			excluded.add(DATABASE_AUTOCONFIG);
+		}
+		if (security == Security.OWN) {
+			excluded.add(SECURITY_LIB_AUTOCONFIG);
+		}
+		if (!excluded.isEmpty()) {
+			args.add("--spring.autoconfigure.exclude=" + String.join(",", excluded));
+		}
+		if (service.equals("api-gateway")) {
+			// the non-docker config only permits health; register and login must reach auth-service without a token
+			args.add("--security.shared.permit-all[0]=/actuator/health");
+			args.add("--security.shared.permit-all[1]=/auth/api/auth/**");
+		}
+
+		long start = System.nanoTime();
+		List<Class<?>> sources = new ArrayList<>(List.of(application, TestChannelBinderConfiguration.class));
+		if (security == Security.GATEWAY_JWT) {
+			sources.add(GatewayJwtSecurity.class);
+		}
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(sources.toArray(Class<?>[]::new))
+				.web(type)
+				.run(args.toArray(String[]::new));
+		contexts.add(context);
+		log.info("Started {} on port {} in {}ms", service, ports.get(service), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	@Override
+	public void close() {
+		for (int i = contexts.size() - 1; i >= 0; i--) {
+			contexts.get(i).close();
+		}
+		contexts.clear();
+	}
+
+	private enum Security {
+		/** the service's own chain; security-lib is excluded */
+		OWN,
+		/** security-lib's resource server, as configured from config-repo */
+		SECURITY_LIB,
+		/** security-lib's resource server in place of the service's own HTTP Basic chain */
+		GATEWAY_JWT
+	}
+
+	private static int freePort() {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
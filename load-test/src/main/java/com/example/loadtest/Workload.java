@@ -0,0 +1,62 @@
+package com.example.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Run parameters from {@code load-test.properties}, each overridable by a {@code -Dload.*} system property.
+ *
+ * @param rates arrivals per second keyed by endpoint name (e.g. {@code user.get}); zero-rate endpoints are omitted
+ */
+record Workload(Duration duration,
+				Duration warmup,
+				int accounts,
+				int maxInFlight,
+				Path configRepo,
+				Map<String, Double> rates) {
+
+	private static final String RATE_PREFIX = "load.rate.";
+
+	static Workload load() {
+		Properties properties = new Properties();
+		try (InputStream in = Workload.class.getResourceAsStream("/load-test.properties")) {
+			if (in != null) {
+				properties.load(in);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		System.getProperties().forEach((key, value) -> {
+			if (key.toString().startsWith("load.")) {
+				properties.setProperty(key.toString(), value.toString());
+			}
+		});
+
+		Map<String, Double> rates = new LinkedHashMap<>();
+		properties.stringPropertyNames().stream()
+				.filter(name -> name.startsWith(RATE_PREFIX))
+				.sorted()
+				.forEach(name -> {
+					double rate = Double.parseDouble(properties.getProperty(name));
+					if (rate > 0) {
+						rates.put(name.substring(RATE_PREFIX.length()), rate);
+					}
+				});
+
+		return new Workload(
+				DurationStyle.detectAndParse(properties.getProperty("load.duration", "60s")),
+				DurationStyle.detectAndParse(properties.getProperty("load.warmup", "15s")),
+				Integer.parseInt(properties.getProperty("load.accounts", "50")),
+				Integer.parseInt(properties.getProperty("load.max-in-flight", "2000")),
+				Path.of(properties.getProperty("load.config-repo", "config-repo")).toAbsolutePath().normalize(),
+				rates);
+	}
+}
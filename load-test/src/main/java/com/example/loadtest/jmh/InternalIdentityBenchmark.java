@@ -0,0 +1,96 @@
+package com.example.loadtest.jmh;
+
+import com.example.authservice.security.jwt.JwtService;
+import com.example.commonlib.security.identity.InternalIdentity;
+import com.example.commonlib.security.identity.InternalIdentityCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a downstream service pays per request to establish the caller: verifying the user's JWT again
+ * (security-lib's {@link NimbusJwtDecoder}, without the verified-token cache) against checking the
+ * gateway's signed identity header with {@link InternalIdentityCodec#decode}.
+ *
+ * <pre>
+ * mvn -P load-test -pl load-test -am -DskipTests compile exec:exec \
+ *     -Dexec.executable=java -Dexec.args="-cp %classpath org.openjdk.jmh.Main InternalIdentityBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InternalIdentityBenchmark {
+
+    // same defaults as config-repo's security.jwt.secret and security.internal-identity.secret
+    private static final String JWT_SECRET = "locallibrarymanagementlocallibrarymanagementlocallibrarymanagement";
+    private static final String IDENTITY_SECRET = "localinternalidentitylocalinternalidentity";
+
+    private JwtDecoder jwtDecoder;
+    private InternalIdentityCodec codec;
+    private String token;
+    private String header;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        jwtDecoder = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(jwtKey(), "HmacSHA256"))
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        token = new JwtService(JWT_SECRET, 900_000, 604_800_000).generateAccessToken(User.withUsername("bench@example.com")
+                .password("")
+                .authorities("ROLE_USER")
+                .build());
+
+        codec = new InternalIdentityCodec(IDENTITY_SECRET.getBytes(StandardCharsets.UTF_8));
+        now = Instant.now().getEpochSecond();
+        header = codec.encode(new InternalIdentity("bench@example.com", List.of("ROLE_USER"), now + 3_600));
+
+        // fail at setup rather than measuring the cost of a rejection
+        jwtDecoder.decode(token);
+        if (codec.decode(header, now) == null) {
+            throw new IllegalStateException("identity header did not verify");
+        }
+    }
+
+    @Benchmark
+    public Jwt jwtDecode() {
+        return jwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public InternalIdentity identityDecode() {
+        return codec.decode(header, now);
+    }
+
+    // JwtDecoderAutoConfiguration's reading of the secret: Base64 if it decodes, raw bytes otherwise
+    private static byte[] jwtKey() {
+        try {
+            return Base64.getDecoder().decode(JWT_SECRET);
+        } catch (IllegalArgumentException ex) {
+            return JWT_SECRET.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
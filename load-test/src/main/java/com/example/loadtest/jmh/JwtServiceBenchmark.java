@@ -0,0 +1,62 @@
+package com.example.loadtest.jmh;
+
+import com.example.authservice.security.jwt.JwtService;
+import com.example.authservice.security.jwt.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token handling in auth-service's {@code JwtAuthenticationFilter}: the previous
+ * three-parse path against a single {@link JwtService#verify}.
+ *
+ * <pre>
+ * mvn -P load-test -pl load-test -am -DskipTests compile exec:exec \
+ *     -Dexec.executable=java -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtServiceBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtServiceBenchmark {
+
+    // same default as config-repo's security.jwt.secret
+    private static final String SECRET = "locallibrarymanagementlocallibrarymanagementlocallibrarymanagement";
+
+    private LegacyJwtParsing legacy;
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacyJwtParsing(SECRET);
+        jwtService = new JwtService(SECRET, 900_000, 604_800_000);
+        token = jwtService.generateAccessToken(User.withUsername("bench@example.com")
+                .password("")
+                .authorities("ROLE_USER")
+                .build());
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        return legacy.authenticate(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyOnce() {
+        return jwtService.verify(token);
+    }
+}
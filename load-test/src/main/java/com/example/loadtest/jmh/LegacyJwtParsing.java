@@ -0,0 +1,61 @@
+package com.example.loadtest.jmh;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Baseline for {@link JwtServiceBenchmark}: auth-service's token parsing as it was before
+ * {@code JwtService.verify}. The key and the parser are rebuilt on every call, and the filter's
+ * {@code extractUsername} followed by {@code isTokenValid} parses the token three times.
+ */
+final class LegacyJwtParsing {
+
+    private final String secretKey;
+
+    LegacyJwtParsing(String secretKey) {
+        this.secretKey = secretKey;
+    }
+
+    /**
+     * What {@code JwtAuthenticationFilter} did per request.
+     */
+    boolean authenticate(String token) {
+        String username = extractUsername(token);
+        return isTokenValid(token, username);
+    }
+
+    private String extractUsername(String token) {
+        return extractClaim(token, Claims::getSubject);
+    }
+
+    private boolean isTokenValid(String token, String expectedUsername) {
+        String username = extractUsername(token);
+        return username.equals(expectedUsername) && !extractClaim(token, Claims::getExpiration).before(new Date());
+    }
+
+    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(getSigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claimsResolver.apply(claims);
+    }
+
+    private Key getSigningKey() {
+        byte[] keyBytes;
+        try {
+            keyBytes = Decoders.BASE64.decode(secretKey);
+        } catch (IllegalArgumentException ex) {
+            keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
+        }
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.commonlib.security.autoconfigure;
+
+import com.example.commonlib.security.identity.InternalIdentityCodec;
+import com.example.commonlib.security.identity.InternalIdentityWebFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Gateway-signed identity propagation. On the reactive gateway this adds a {@link InternalIdentityWebFilter};
+ * servlet services pick up the {@link InternalIdentityCodec} in {@link ServletResourceServerAutoConfiguration}.
+ */
+@AutoConfiguration(before = ServletResourceServerAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "security.shared.internal-identity", name = "enabled", havingValue = "true")
+@Slf4j
+public class InternalIdentityAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public InternalIdentityCodec internalIdentityCodec(SecuritySharedProperties props) {
+        String secret = props.getInternalIdentity().getSecret();
+        if (!StringUtils.hasText(secret)) {
+            throw new IllegalStateException("security.shared.internal-identity.secret must be set when internal-identity is enabled");
+        }
+        log.info("Auto-configuring InternalIdentityCodec (HmacSHA256)");
+        return new InternalIdentityCodec(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class Reactive {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public InternalIdentityWebFilter internalIdentityWebFilter(InternalIdentityCodec codec, SecuritySharedProperties props) {
+            SecuritySharedProperties.InternalIdentity identity = props.getInternalIdentity();
+            log.info("Signing {} for downstream hops (ttl={})", identity.getHeaderName(), identity.getTtl());
+            return new InternalIdentityWebFilter(codec, identity.getHeaderName(), identity.getTtl());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.commonlib.security.autoconfigure;
+
+import com.example.commonlib.security.jwt.VerifiedJwtCache;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in {@link VerifiedJwtCache}. {@link JwtDecoderAutoConfiguration} and {@link ReactiveJwtDecoderAutoConfiguration}
+ * wrap their decoder when this bean exists. With Micrometer present the cache is exported as
+ * {@code cache.gets{cache=jwt,result=hit|miss}}, {@code cache.size} and {@code cache.evictions}.
+ */
+@AutoConfiguration(before = {JwtDecoderAutoConfiguration.class, ReactiveJwtDecoderAutoConfiguration.class})
+@ConditionalOnProperty(prefix = "security.shared.jwt-cache", name = "enabled", havingValue = "true")
+@Slf4j
+public class JwtCacheAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public VerifiedJwtCache verifiedJwtCache(SecuritySharedProperties props) {
+        SecuritySharedProperties.JwtCache jwtCache = props.getJwtCache();
+        log.info("Auto-configuring VerifiedJwtCache (maxEntries={}, maxTtl={})", jwtCache.getMaxEntries(), jwtCache.getMaxTtl());
+        return new VerifiedJwtCache(jwtCache.getMaxEntries(), jwtCache.getMaxTtl());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class Metrics {
+
+        @Bean
+        public MeterBinder verifiedJwtCacheMetrics(VerifiedJwtCache cache) {
+            return registry -> CaffeineCacheMetrics.monitor(registry, cache.nativeCache(), "jwt");
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.commonlib.security.autoconfigure;
 
+import com.example.commonlib.security.jwt.CachingJwtDecoder;
+import com.example.commonlib.security.jwt.VerifiedJwtCache;
+import com.example.commonlib.security.revocation.RevocationCheckingJwtDecoder;
+import com.example.commonlib.security.revocation.RevocationList;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -20,7 +25,9 @@ public class JwtDecoderAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean(JwtDecoder.class)
-	public JwtDecoder jwtDecoder(@Value("${security.jwt.secret}") String jwtSecret) {
+	public JwtDecoder jwtDecoder(@Value("${security.jwt.secret}") String jwtSecret,
+			ObjectProvider<VerifiedJwtCache> jwtCache,
+			ObjectProvider<RevocationList> revocations) {
 		log.info("Auto-configuring JwtDecoder (HS256)");
 
 		byte[] keyBytes;
@@ -33,8 +40,16 @@ public class JwtDecoderAutoConfiguration {
 		}
 
 		SecretKey secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
-		return NimbusJwtDecoder.withSecretKey(secretKey)
+		JwtDecoder decoder = NimbusJwtDecoder.withSecretKey(secretKey)
 				.macAlgorithm(MacAlgorithm.HS256)
 				.build();
+
+		VerifiedJwtCache cache = jwtCache.getIfAvailable();
+		if (cache != null) {
+			decoder = new CachingJwtDecoder(decoder, cache);
+		}
+		// outside the cache, so a cached token revoked later is still refused
+		RevocationList revocationList = revocations.getIfAvailable();
+		return revocationList != null ? new RevocationCheckingJwtDecoder(decoder, revocationList) : decoder;
 	}
 }
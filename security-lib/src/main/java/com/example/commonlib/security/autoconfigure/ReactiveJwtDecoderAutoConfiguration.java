@@ -1,6 +1,11 @@
 package com.example.commonlib.security.autoconfigure;
 
+import com.example.commonlib.security.jwt.CachingReactiveJwtDecoder;
+import com.example.commonlib.security.jwt.VerifiedJwtCache;
+import com.example.commonlib.security.revocation.RevocationCheckingReactiveJwtDecoder;
+import com.example.commonlib.security.revocation.RevocationList;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -22,7 +27,9 @@ public class ReactiveJwtDecoderAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean(ReactiveJwtDecoder.class)
-	public ReactiveJwtDecoder reactiveJwtDecoder(@Value("${security.jwt.secret}") String jwtSecret) {
+	public ReactiveJwtDecoder reactiveJwtDecoder(@Value("${security.jwt.secret}") String jwtSecret,
+			ObjectProvider<VerifiedJwtCache> jwtCache,
+			ObjectProvider<RevocationList> revocations) {
 		log.info("Auto-configuring ReactiveJwtDecoder (HS256)");
 
 		byte[] keyBytes;
@@ -36,8 +43,16 @@ public class ReactiveJwtDecoderAutoConfiguration {
 
 		SecretKey secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
 
-		return NimbusReactiveJwtDecoder.withSecretKey(secretKey)
+		ReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withSecretKey(secretKey)
 				.macAlgorithm(MacAlgorithm.HS256)
 				.build();
+
+		VerifiedJwtCache cache = jwtCache.getIfAvailable();
+		if (cache != null) {
+			decoder = new CachingReactiveJwtDecoder(decoder, cache);
+		}
+		// outside the cache, so a cached token revoked later is still refused
+		RevocationList revocationList = revocations.getIfAvailable();
+		return revocationList != null ? new RevocationCheckingReactiveJwtDecoder(decoder, revocationList) : decoder;
 	}
 }
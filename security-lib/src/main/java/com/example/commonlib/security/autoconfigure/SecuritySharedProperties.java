@@ -2,6 +2,7 @@ package com.example.commonlib.security.autoconfigure;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,6 +17,12 @@ public class SecuritySharedProperties {
     private String rolesClaim = "roles";
     private String rolePrefix = "ROLE_";
 
+    private InternalIdentity internalIdentity = new InternalIdentity();
+
+    private JwtCache jwtCache = new JwtCache();
+
+    private Revocation revocation = new Revocation();
+
     public List<String> getAllowedOrigins() { return allowedOrigins; }
     public void setAllowedOrigins(List<String> allowedOrigins) { this.allowedOrigins = allowedOrigins; }
 
@@ -27,4 +34,80 @@ public class SecuritySharedProperties {
 
     public String getRolePrefix() { return rolePrefix; }
     public void setRolePrefix(String rolePrefix) { this.rolePrefix = rolePrefix; }
+
+    public InternalIdentity getInternalIdentity() { return internalIdentity; }
+    public void setInternalIdentity(InternalIdentity internalIdentity) { this.internalIdentity = internalIdentity; }
+
+    public JwtCache getJwtCache() { return jwtCache; }
+    public void setJwtCache(JwtCache jwtCache) { this.jwtCache = jwtCache; }
+
+    public Revocation getRevocation() { return revocation; }
+    public void setRevocation(Revocation revocation) { this.revocation = revocation; }
+
+    /**
+     * Gateway-signed identity header; see {@code com.example.commonlib.security.identity}.
+     * Gateway and downstream services must share the same secret.
+     */
+    public static class InternalIdentity {
+
+        private boolean enabled = false;
+        private String secret;
+        private String headerName = "X-Internal-Identity";
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public String getSecret() { return secret; }
+        public void setSecret(String secret) { this.secret = secret; }
+
+        public String getHeaderName() { return headerName; }
+        public void setHeaderName(String headerName) { this.headerName = headerName; }
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+    }
+
+    /**
+     * Verified-token cache in front of the JWT decoders; see {@code com.example.commonlib.security.jwt}.
+     * Entries never outlive the token's own {@code exp}; {@code maxTtl} caps tokens without one.
+     */
+    public static class JwtCache {
+
+        private boolean enabled = false;
+        private long maxEntries = 10_000;
+        private Duration maxTtl = Duration.ofMinutes(15);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public long getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(long maxEntries) { this.maxEntries = maxEntries; }
+
+        public Duration getMaxTtl() { return maxTtl; }
+        public void setMaxTtl(Duration maxTtl) { this.maxTtl = maxTtl; }
+    }
+
+    /**
+     * Access-token revocations from auth-service; see {@code com.example.commonlib.security.revocation}.
+     */
+    public static class Revocation {
+
+        private boolean enabled = false;
+        private long expectedRevocations = 100_000;
+        private double falsePositiveRate = 0.01;
+        private Duration pruneInterval = Duration.ofMinutes(1);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public long getExpectedRevocations() { return expectedRevocations; }
+        public void setExpectedRevocations(long expectedRevocations) { this.expectedRevocations = expectedRevocations; }
+
+        public double getFalsePositiveRate() { return falsePositiveRate; }
+        public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+
+        public Duration getPruneInterval() { return pruneInterval; }
+        public void setPruneInterval(Duration pruneInterval) { this.pruneInterval = pruneInterval; }
+    }
 }
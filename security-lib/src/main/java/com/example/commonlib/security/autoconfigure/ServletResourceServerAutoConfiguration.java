@@ -1,6 +1,9 @@
 package com.example.commonlib.security.autoconfigure;
 
+import com.example.commonlib.security.identity.InternalIdentityAuthenticationFilter;
+import com.example.commonlib.security.identity.InternalIdentityCodec;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
@@ -12,6 +15,7 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 @AutoConfiguration
@@ -24,7 +28,8 @@ public class ServletResourceServerAutoConfiguration {
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
             SecuritySharedProperties props,
-            Converter<Jwt, ? extends AbstractAuthenticationToken> jwtAuthConverterServlet
+            Converter<Jwt, ? extends AbstractAuthenticationToken> jwtAuthConverterServlet,
+            ObjectProvider<InternalIdentityCodec> internalIdentityCodec
     ) throws Exception {
         log.info("Building SecurityFilterChain (SERVLET, stateless JWT)");
 
@@ -43,6 +48,17 @@ public class ServletResourceServerAutoConfiguration {
                         .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthConverterServlet))
                 );
 
+        InternalIdentityCodec codec = internalIdentityCodec.getIfAvailable();
+        if (codec != null) {
+            // gateway already verified the JWT; trust its signed header and skip bearer decoding
+            log.info("Accepting gateway identity header {}", props.getInternalIdentity().getHeaderName());
+            http
+                    .addFilterBefore(new InternalIdentityAuthenticationFilter(codec, props.getInternalIdentity().getHeaderName()),
+                            BearerTokenAuthenticationFilter.class)
+                    .oauth2ResourceServer(oauth2 -> oauth2
+                            .bearerTokenResolver(InternalIdentityAuthenticationFilter.bearerTokenResolver()));
+        }
+
         return http.build();
     }
 }
@@ -0,0 +1,61 @@
+package com.example.commonlib.security.autoconfigure;
+
+import com.example.commonlib.security.revocation.RevocationList;
+import com.example.commonlib.security.revocation.TokenRevocation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Consumer;
+
+/**
+ * Access-token revocation fed by auth-service over Kafka. Provides the {@link RevocationList} that
+ * {@link JwtDecoderAutoConfiguration} and {@link ReactiveJwtDecoderAutoConfiguration} check after
+ * verification, and the {@code tokenRevocations} consumer that fills it. The service must list
+ * {@code tokenRevocations} in {@code spring.cloud.function.definition}.
+ * <p>
+ * New instances bootstrap by replaying the topic: the binding consumes with an anonymous group from the
+ * earliest offset, and the topic retains revocations for longer than an access token lives.
+ */
+@AutoConfiguration(before = {JwtDecoderAutoConfiguration.class, ReactiveJwtDecoderAutoConfiguration.class})
+@ConditionalOnProperty(prefix = "security.shared.revocation", name = "enabled", havingValue = "true")
+@Slf4j
+public class TokenRevocationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RevocationList revocationList(SecuritySharedProperties props) {
+        SecuritySharedProperties.Revocation revocation = props.getRevocation();
+        log.info("Auto-configuring RevocationList (expected={}, fpp={})",
+                revocation.getExpectedRevocations(), revocation.getFalsePositiveRate());
+        return new RevocationList(revocation.getExpectedRevocations(), revocation.getFalsePositiveRate(),
+                revocation.getPruneInterval());
+    }
+
+    @Bean
+    public Consumer<TokenRevocation> tokenRevocations(RevocationList revocations) {
+        return revocation -> {
+            log.debug("Token revocation received tokenIdPresent={} subjectPresent={} expiresAt={}",
+                    revocation.tokenId() != null, revocation.subject() != null, revocation.expiresAtEpochSeconds());
+            revocations.revoke(revocation);
+        };
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class Metrics {
+
+        @Bean
+        public MeterBinder revocationListMetrics(RevocationList revocations) {
+            return registry -> Gauge.builder("security.revocation.entries", revocations, RevocationList::size)
+                    .description("Token revocations currently held in memory")
+                    .register(registry);
+        }
+    }
+}
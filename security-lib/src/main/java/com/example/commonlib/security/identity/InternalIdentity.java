@@ -0,0 +1,13 @@
+package com.example.commonlib.security.identity;
+
+import java.util.List;
+
+/**
+ * Caller identity as asserted by the gateway after it verified the user's JWT.
+ *
+ * @param subject          JWT subject
+ * @param authorities      granted authorities, already prefixed (e.g. {@code ROLE_ADMIN})
+ * @param expiresAtSeconds epoch seconds after which downstream services must not accept it
+ */
+public record InternalIdentity(String subject, List<String> authorities, long expiresAtSeconds) {
+}
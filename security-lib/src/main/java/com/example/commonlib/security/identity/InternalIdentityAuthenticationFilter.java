@@ -0,0 +1,77 @@
+package com.example.commonlib.security.identity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Downstream side: a valid gateway identity header authenticates the request and the bearer token is
+ * then ignored, so the JWT is not verified a second time. A header that is present but invalid (bad
+ * signature, expired, malformed) is rejected with 401 rather than falling back to the JWT, since only
+ * a forged or replayed header can get here in that state.
+ */
+@Slf4j
+public class InternalIdentityAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String AUTHENTICATED_ATTRIBUTE = InternalIdentityAuthenticationFilter.class.getName() + ".authenticated";
+
+    private final InternalIdentityCodec codec;
+    private final String headerName;
+    private final SecurityContextHolderStrategy contextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+
+    public InternalIdentityAuthenticationFilter(InternalIdentityCodec codec, String headerName) {
+        this.codec = codec;
+        this.headerName = headerName;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String value = request.getHeader(headerName);
+        if (value == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        InternalIdentity identity = codec.decode(value, Instant.now().getEpochSecond());
+        if (identity == null) {
+            log.warn("Rejected invalid {} header for {} {} from {}", headerName, request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        PreAuthenticatedAuthenticationToken authentication = new PreAuthenticatedAuthenticationToken(
+                identity.subject(),
+                null,
+                identity.authorities().stream().map(SimpleGrantedAuthority::new).toList());
+        SecurityContext context = contextHolderStrategy.createEmptyContext();
+        context.setAuthentication(authentication);
+        contextHolderStrategy.setContext(context);
+        request.setAttribute(AUTHENTICATED_ATTRIBUTE, Boolean.TRUE);
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Bearer resolver that yields nothing once the identity header has authenticated the request.
+     */
+    public static BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver delegate = new DefaultBearerTokenResolver();
+        return request -> request.getAttribute(AUTHENTICATED_ATTRIBUTE) != null ? null : delegate.resolve(request);
+    }
+}
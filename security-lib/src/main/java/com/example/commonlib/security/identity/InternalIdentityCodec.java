@@ -0,0 +1,96 @@
+package com.example.commonlib.security.identity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Compact signed form of an {@link InternalIdentity}:
+ * {@code v1.<base64url(exp|authorities|subject)>.<base64url(HMAC-SHA256)>}.
+ * <p>
+ * Verifying is one HMAC over a few dozen bytes plus a split, with no JSON parsing. That is the whole
+ * point compared with re-verifying the JWT on every hop. The key is internal to the cluster and separate
+ * from the JWT secret, so a leaked header cannot be turned into a user token.
+ */
+public class InternalIdentityCodec {
+
+    private static final String VERSION = "v1.";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> macs;
+
+    public InternalIdentityCodec(byte[] key) {
+        SecretKeySpec keySpec = new SecretKeySpec(key, "HmacSHA256");
+        // Mac instances are not thread-safe and getInstance is comparatively slow
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("HmacSHA256 unavailable", ex);
+            }
+        });
+    }
+
+    public String encode(InternalIdentity identity) {
+        String payload = identity.expiresAtSeconds() + "|" + String.join(",", identity.authorities()) + "|" + identity.subject();
+        String body = VERSION + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return body + '.' + ENCODER.encodeToString(sign(body));
+    }
+
+    /**
+     * @return the identity, or null if the value is malformed, wrongly signed or expired
+     */
+    public InternalIdentity decode(String value, long nowEpochSeconds) {
+        if (value == null || !value.startsWith(VERSION)) {
+            return null;
+        }
+        int dot = value.lastIndexOf('.');
+        if (dot <= VERSION.length()) {
+            return null;
+        }
+        String body = value.substring(0, dot);
+        byte[] signature;
+        byte[] payload;
+        try {
+            signature = DECODER.decode(value.substring(dot + 1));
+            payload = DECODER.decode(body.substring(VERSION.length()));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(body), signature)) {
+            return null;
+        }
+
+        String decoded = new String(payload, StandardCharsets.UTF_8);
+        int first = decoded.indexOf('|');
+        int second = first < 0 ? -1 : decoded.indexOf('|', first + 1);
+        if (second < 0) {
+            return null;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(decoded, 0, first, 10);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        if (expiresAt <= nowEpochSeconds) {
+            return null;
+        }
+        String authorities = decoded.substring(first + 1, second);
+        return new InternalIdentity(
+                decoded.substring(second + 1),
+                authorities.isEmpty() ? List.of() : List.of(authorities.split(",")),
+                expiresAt);
+    }
+
+    private byte[] sign(String body) {
+        return macs.get().doFinal(body.getBytes(StandardCharsets.US_ASCII));
+    }
+}
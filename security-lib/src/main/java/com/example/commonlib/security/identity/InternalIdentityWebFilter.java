@@ -0,0 +1,70 @@
+package com.example.commonlib.security.identity;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Gateway side: always drops any identity header a client sent, then, once Spring Security has verified
+ * the JWT, attaches a freshly signed one for the downstream hop. Expiry is the earlier of the JWT's own
+ * expiry and {@code now + ttl}.
+ */
+public class InternalIdentityWebFilter implements WebFilter, Ordered {
+
+    // after WebFilterChainProxy (-100), so the security context is populated
+    public static final int ORDER = 0;
+
+    private final InternalIdentityCodec codec;
+    private final String headerName;
+    private final long ttlSeconds;
+
+    public InternalIdentityWebFilter(InternalIdentityCodec codec, String headerName, Duration ttl) {
+        this.codec = codec;
+        this.headerName = headerName;
+        this.ttlSeconds = ttl.toSeconds();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpRequest stripped = request.getHeaders().containsKey(headerName)
+                ? request.mutate().headers(headers -> headers.remove(headerName)).build()
+                : request;
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication instanceof JwtAuthenticationToken && authentication.isAuthenticated())
+                .map(authentication -> stripped.mutate().header(headerName, sign((JwtAuthenticationToken) authentication)).build())
+                .defaultIfEmpty(stripped)
+                .flatMap(forwarded -> chain.filter(forwarded == request ? exchange : exchange.mutate().request(forwarded).build()));
+    }
+
+    private String sign(JwtAuthenticationToken authentication) {
+        long now = Instant.now().getEpochSecond();
+        long expiresAt = now + ttlSeconds;
+        Instant jwtExpiry = authentication.getToken().getExpiresAt();
+        if (jwtExpiry != null) {
+            expiresAt = Math.min(expiresAt, jwtExpiry.getEpochSecond());
+        }
+        List<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return codec.encode(new InternalIdentity(authentication.getName(), authorities, expiresAt));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.commonlib.security.jwt;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} that consults a {@link VerifiedJwtCache} before delegating. Failures from the delegate
+ * propagate unchanged and are not cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final VerifiedJwtCache cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, VerifiedJwtCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt cached = cache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Jwt jwt = delegate.decode(token);
+        cache.put(token, jwt);
+        return jwt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.commonlib.security.jwt;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveJwtDecoder} that consults a {@link VerifiedJwtCache} before delegating. A hit completes
+ * on the calling thread; failures from the delegate propagate unchanged and are not cached.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final VerifiedJwtCache cache;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, VerifiedJwtCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        Jwt cached = cache.get(token);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return delegate.decode(token).doOnNext(jwt -> cache.put(token, jwt));
+    }
+}
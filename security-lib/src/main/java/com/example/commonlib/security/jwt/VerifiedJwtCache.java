@@ -0,0 +1,103 @@
+package com.example.commonlib.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Verified {@link Jwt}s keyed by a SHA-256 digest of the compact token, so a client that reuses its access
+ * token is verified once instead of on every request. Only successfully decoded tokens are stored; a bad
+ * signature or an expired token is never cached.
+ * <p>
+ * An entry lives until the token's own {@code exp}, capped by {@code maxTtl}, and the cache is bounded by
+ * {@code maxEntries}. The raw token is not kept as a key.
+ */
+public class VerifiedJwtCache {
+
+    private final Cache<TokenKey, Jwt> cache;
+    private final long maxTtlNanos;
+    // MessageDigest instances are not thread-safe
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 unavailable", ex);
+        }
+    });
+
+    public VerifiedJwtCache(long maxEntries, Duration maxTtl) {
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the previously verified token, or null on a miss
+     */
+    public Jwt get(String token) {
+        return cache.getIfPresent(key(token));
+    }
+
+    public void put(String token, Jwt jwt) {
+        if (remainingNanos(jwt) > 0) {
+            cache.put(key(token), jwt);
+        }
+    }
+
+    /**
+     * For metrics binding.
+     */
+    public Cache<?, ?> nativeCache() {
+        return cache;
+    }
+
+    private long remainingNanos(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return maxTtlNanos;
+        }
+        long remaining = Duration.between(Instant.now(), expiresAt).toNanos();
+        return Math.min(remaining, maxTtlNanos);
+    }
+
+    private TokenKey key(String token) {
+        byte[] digest = digests.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        return new TokenKey(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * The full 256-bit digest as four longs: cheaper to hash and compare than a byte array or a hex string.
+     */
+    private record TokenKey(long a, long b, long c, long d) {
+    }
+
+    private final class UntilTokenExpiry implements Expiry<TokenKey, Jwt> {
+
+        @Override
+        public long expireAfterCreate(TokenKey key, Jwt jwt, long currentTime) {
+            return Math.max(remainingNanos(jwt), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenKey key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenKey key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.commonlib.security.revocation;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Rejects revoked tokens after the delegate has verified them. Sits outside any caching decoder, so a
+ * token revoked after it was cached is still refused. The resource server turns the
+ * {@link BadJwtException} into a 401 {@code invalid_token}.
+ */
+public class RevocationCheckingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final RevocationList revocations;
+
+    public RevocationCheckingJwtDecoder(JwtDecoder delegate, RevocationList revocations) {
+        this.delegate = delegate;
+        this.revocations = revocations;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = delegate.decode(token);
+        if (revocations.isRevoked(jwt.getId(), jwt.getSubject(), RevocationList.issuedAt(jwt))) {
+            throw new BadJwtException("Token has been revoked");
+        }
+        return jwt;
+    }
+}
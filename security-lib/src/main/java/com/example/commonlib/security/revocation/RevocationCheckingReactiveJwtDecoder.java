@@ -0,0 +1,32 @@
+package com.example.commonlib.security.revocation;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link RevocationCheckingJwtDecoder}.
+ */
+public class RevocationCheckingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final RevocationList revocations;
+
+    public RevocationCheckingReactiveJwtDecoder(ReactiveJwtDecoder delegate, RevocationList revocations) {
+        this.delegate = delegate;
+        this.revocations = revocations;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        return delegate.decode(token).handle((jwt, sink) -> {
+            if (revocations.isRevoked(jwt.getId(), jwt.getSubject(), RevocationList.issuedAt(jwt))) {
+                sink.error(new BadJwtException("Token has been revoked"));
+                return;
+            }
+            sink.next(jwt);
+        });
+    }
+}
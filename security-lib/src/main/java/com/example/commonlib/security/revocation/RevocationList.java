@@ -0,0 +1,135 @@
+package com.example.commonlib.security.revocation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory list of revoked access tokens, checked on every authenticated request.
+ * <p>
+ * A Bloom filter answers the common case, a token nobody revoked, in a few bit probes without hashing into
+ * a map. Only on a filter hit are the exact sets consulted: revoked token ids ({@code jti}) and subjects
+ * with an issued-before cut-off. Cut-offs are compared in milliseconds, using the token's {@code iat_ms}
+ * claim where present, so a login in the same second as a logout-all keeps its new tokens. Every entry
+ * carries the time after which no token it could match is still valid. Expired entries are pruned, and
+ * the filter rebuilt, on the first revocation after each {@code pruneInterval}. No background thread is
+ * needed, and the list only grows while revocations keep arriving.
+ * <p>
+ * Writes are serialized; reads take no lock.
+ */
+@Slf4j
+public class RevocationList {
+
+    private static final long TOKEN_ID_SEED = 0x6a7469L;
+    private static final long SUBJECT_SEED = 0x737562L;
+    private static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
+    private final Map<String, Long> tokenIds = new ConcurrentHashMap<>();
+    private final Map<String, Cutoff> subjects = new ConcurrentHashMap<>();
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final long pruneIntervalSeconds;
+
+    private volatile BloomFilter filter;
+    private long filterCapacity;
+    private long nextPruneAt;
+
+    public RevocationList(long expectedRevocations, double falsePositiveRate, Duration pruneInterval) {
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.pruneIntervalSeconds = pruneInterval.toSeconds();
+        this.filterCapacity = expectedRevocations;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        this.nextPruneAt = Instant.now().getEpochSecond() + pruneIntervalSeconds;
+    }
+
+    public synchronized void revoke(TokenRevocation revocation) {
+        long now = Instant.now().getEpochSecond();
+        if (revocation.expiresAtEpochSeconds() <= now) {
+            // replayed from the topic after everything it covers has expired
+            return;
+        }
+        if (now >= nextPruneAt) {
+            prune(now);
+        }
+
+        if (revocation.tokenId() != null) {
+            tokenIds.merge(revocation.tokenId(), revocation.expiresAtEpochSeconds(), Math::max);
+            filter.add(revocation.tokenId(), TOKEN_ID_SEED);
+        } else if (revocation.subject() != null) {
+            subjects.merge(revocation.subject(),
+                    new Cutoff(revocation.issuedBeforeMillis(), revocation.expiresAtEpochSeconds()),
+                    Cutoff::later);
+            filter.add(revocation.subject(), SUBJECT_SEED);
+        } else {
+            log.warn("Ignoring token revocation with neither token id nor subject");
+            return;
+        }
+
+        if (size() > filterCapacity) {
+            // keep the false-positive rate near target as the list grows
+            rebuild(size() * 2);
+        }
+    }
+
+    /**
+     * @param tokenId  the token's {@code jti}, may be null
+     * @param subject  the token's {@code sub}, may be null
+     * @param issuedAt the token's issue time, see {@link #issuedAt(Jwt)}; may be null
+     */
+    public boolean isRevoked(String tokenId, String subject, Instant issuedAt) {
+        BloomFilter current = filter;
+        if (tokenId != null && current.mightContain(tokenId, TOKEN_ID_SEED) && tokenIds.containsKey(tokenId)) {
+            return true;
+        }
+        if (subject != null && current.mightContain(subject, SUBJECT_SEED)) {
+            Cutoff cutoff = subjects.get(subject);
+            // a token without iat cannot prove it was issued after the cut-off
+            return cutoff != null && (issuedAt == null || issuedAt.toEpochMilli() < cutoff.issuedBeforeMillis());
+        }
+        return false;
+    }
+
+    /**
+     * The token's issue time to the millisecond: auth-service's {@code iat_ms} claim, falling back to the
+     * whole-second {@code iat} for tokens issued before the claim existed.
+     */
+    public static Instant issuedAt(Jwt jwt) {
+        Object millis = jwt.getClaims().get(ISSUED_AT_MS_CLAIM);
+        return millis instanceof Number number ? Instant.ofEpochMilli(number.longValue()) : jwt.getIssuedAt();
+    }
+
+    public int size() {
+        return tokenIds.size() + subjects.size();
+    }
+
+    private void prune(long now) {
+        int before = size();
+        tokenIds.values().removeIf(expiresAt -> expiresAt <= now);
+        subjects.values().removeIf(cutoff -> cutoff.expiresAt() <= now);
+        nextPruneAt = now + pruneIntervalSeconds;
+        if (size() < before) {
+            rebuild(Math.max(expectedRevocations, size() * 2L));
+            log.debug("Pruned {} expired token revocations, {} left", before - size(), size());
+        }
+    }
+
+    private void rebuild(long capacity) {
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        tokenIds.keySet().forEach(id -> rebuilt.add(id, TOKEN_ID_SEED));
+        subjects.keySet().forEach(subject -> rebuilt.add(subject, SUBJECT_SEED));
+        filterCapacity = capacity;
+        filter = rebuilt;
+    }
+
+    private record Cutoff(long issuedBeforeMillis, long expiresAt) {
+
+        static Cutoff later(Cutoff a, Cutoff b) {
+            return new Cutoff(Math.max(a.issuedBeforeMillis, b.issuedBeforeMillis), Math.max(a.expiresAt, b.expiresAt));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.commonlib.security.revocation;
+
+/**
+ * Resource-server view of auth-service's {@code TokenRevokedEvent} (binding {@code tokenRevocations-in-0}).
+ * <p>
+ * With {@code tokenId} set, the single token with that {@code jti} is revoked. Otherwise every token for
+ * {@code subject} issued before {@code issuedBeforeEpochMillis} is; events from publishers that predate that
+ * field only carry {@code issuedBeforeEpochSeconds}. Either way the revocation stops mattering at
+ * {@code expiresAtEpochSeconds}, once every token it could match has expired on its own.
+ */
+public record TokenRevocation(String tokenId,
+                              String subject,
+                              long issuedBeforeEpochSeconds,
+                              long issuedBeforeEpochMillis,
+                              long expiresAtEpochSeconds) {
+
+    public long issuedBeforeMillis() {
+        return issuedBeforeEpochMillis > 0 ? issuedBeforeEpochMillis : issuedBeforeEpochSeconds * 1000;
+    }
+}